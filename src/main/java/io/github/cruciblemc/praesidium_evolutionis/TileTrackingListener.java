@@ -3,16 +3,24 @@ package io.github.cruciblemc.praesidium_evolutionis;
 import cpw.mods.fml.common.eventhandler.EventPriority;
 import cpw.mods.fml.common.eventhandler.SubscribeEvent;
 import io.github.cruciblemc.praesidium_evolutionis.api.fakeplayer.BetterFakePlayer;
+import io.github.cruciblemc.praesidium_evolutionis.api.scheduler.ForgeChunkPolicy;
 import io.github.cruciblemc.praesidium_evolutionis.api.scheduler.SchedulerManager;
 import io.github.cruciblemc.praesidium_evolutionis.api.tracking.Identification;
 import io.github.cruciblemc.praesidium_evolutionis.api.tracking.IdentificationManager;
 import io.github.cruciblemc.praesidium_evolutionis.api.tracking.TileTracking;
 import io.github.cruciblemc.praesidium_evolutionis.config.CommonConfig;
 import net.minecraft.tileentity.TileEntity;
+import net.minecraft.world.ChunkCoordIntPair;
 import net.minecraft.world.World;
+import net.minecraftforge.common.util.BlockSnapshot;
 import net.minecraftforge.common.util.FakePlayer;
 import net.minecraftforge.event.world.BlockEvent;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 public class TileTrackingListener {
     static final TileTrackingListener INSTANCE = new TileTrackingListener();
 
@@ -24,11 +32,13 @@ public class TileTrackingListener {
         if (CommonConfig.tracking_enabled) {
             if (event.player instanceof BetterFakePlayer) {
                 Identification owner = ((BetterFakePlayer) event.player).getOwner();
-                SchedulerManager.getServerScheduler().runTask(PraesidiumEvolutionis.getContainer(),
+                SchedulerManager.getServerScheduler().runTaskInChunk(PraesidiumEvolutionis.getContainer(),
+                        event.world, event.x >> 4, event.z >> 4, ForgeChunkPolicy.PARK,
                         new SetOwner(event.x, event.y, event.z, owner, event.world));
 
             } else if (!(event.player instanceof FakePlayer)) {
-                SchedulerManager.getServerScheduler().runTask(PraesidiumEvolutionis.getContainer(),
+                SchedulerManager.getServerScheduler().runTaskInChunk(PraesidiumEvolutionis.getContainer(),
+                        event.world, event.x >> 4, event.z >> 4, ForgeChunkPolicy.PARK,
                         new SetOwner(event.x, event.y, event.z, IdentificationManager.fromPlayer(event.player), event.world));
             }
         }
@@ -37,43 +47,60 @@ public class TileTrackingListener {
     @SubscribeEvent(priority = EventPriority.LOWEST)
     public void multiPlaceEvent(BlockEvent.MultiPlaceEvent event) {
         if (CommonConfig.tracking_enabled) {
+            Identification owner;
             if (event.player instanceof BetterFakePlayer) {
-                Identification owner = ((BetterFakePlayer) event.player).getOwner();
-
-                event.getReplacedBlockSnapshots().forEach(block ->
-                        SchedulerManager.getServerScheduler().runTask(PraesidiumEvolutionis.getContainer(),
-                                new SetOwner(block.x, block.y, block.z, owner, event.world)));
+                owner = ((BetterFakePlayer) event.player).getOwner();
             } else if (!(event.player instanceof FakePlayer)) {
-                event.getReplacedBlockSnapshots().forEach(block -> {
-                    var ident = IdentificationManager.fromPlayer(event.player);
-                    SchedulerManager.getServerScheduler().runTask(PraesidiumEvolutionis.getContainer(),
-                            new SetOwner(block.x, block.y, block.z, ident, event.world));
-                });
+                owner = IdentificationManager.fromPlayer(event.player);
+            } else {
+                return;
             }
+            // The blocks may straddle chunks, one write per chunk that waits for its own
+            Map<ChunkCoordIntPair, List<BlockSnapshot>> chunks = new LinkedHashMap<>();
+            for (BlockSnapshot block : event.getReplacedBlockSnapshots()) {
+                chunks.computeIfAbsent(new ChunkCoordIntPair(block.x >> 4, block.z >> 4), k -> new ArrayList<>()).add(block);
+            }
+            chunks.forEach((chunk, blocks) ->
+                    SchedulerManager.getServerScheduler().runTaskInChunk(PraesidiumEvolutionis.getContainer(),
+                            event.world, chunk.chunkXPos, chunk.chunkZPos, ForgeChunkPolicy.PARK,
+                            new SetOwner(blocks, owner, event.world)));
         }
     }
 }
 
 class SetOwner implements Runnable {
-    private final int x;
-    private final int y;
-    private final int z;
+    /**
+     * x, y and z of every block
+     */
+    private final int[] positions;
     private final Identification player;
     private final World world;
 
     SetOwner(int x, int y, int z, Identification player, World world) {
-        this.x = x;
-        this.y = y;
-        this.z = z;
+        this.positions = new int[]{x, y, z};
+        this.player = player;
+        this.world = world;
+    }
+
+    SetOwner(List<BlockSnapshot> blocks, Identification player, World world) {
+        this.positions = new int[blocks.size() * 3];
+        for (int i = 0; i < blocks.size(); i++) {
+            BlockSnapshot block = blocks.get(i);
+            positions[i * 3] = block.x;
+            positions[i * 3 + 1] = block.y;
+            positions[i * 3 + 2] = block.z;
+        }
         this.player = player;
         this.world = world;
     }
 
     @Override
     public void run() {
-        TileEntity tile = world.getTileEntity(x, y, z);
-        if (tile != null) {
-            TileTracking.setOwner(tile, player);
+        for (int i = 0; i < positions.length; i += 3) {
+            TileEntity tile = world.getTileEntity(positions[i], positions[i + 1], positions[i + 2]);
+            if (tile != null) {
+                TileTracking.setOwner(tile, player);
+            }
         }
     }
 }
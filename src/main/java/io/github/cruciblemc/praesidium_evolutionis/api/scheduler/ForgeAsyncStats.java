@@ -0,0 +1,40 @@
+package io.github.cruciblemc.praesidium_evolutionis.api.scheduler;
+
+/**
+ * Live counters of a mod's async bulkhead.
+ * <p>
+ * Every mod gets its own queue in front of the shared async pool, with a limit on how many of its tasks run at
+ * once and on how many may start per second. Async runs of a mod wait in that queue instead of taking threads away
+ * from the other mods, and are rejected once the queue is full.
+ */
+public interface ForgeAsyncStats {
+
+    /**
+     * Returns how many async runs of the mod wait for a slot.
+     *
+     * @return The current queue depth.
+     */
+    int getQueued();
+
+    /**
+     * Returns how many async runs of the mod were handed to the pool and didn't finish yet.
+     *
+     * @return The number of runs in flight.
+     */
+    int getRunning();
+
+    /**
+     * Returns how many async runs of the mod were handed to the pool since the server started.
+     *
+     * @return The number of dispatched runs.
+     */
+    long getDispatched();
+
+    /**
+     * Returns how many async runs of the mod were rejected because its queue was full. Runs the shared pool has no
+     * room for are not rejected, they wait in the mod's queue until a thread frees up.
+     *
+     * @return The number of rejected runs.
+     */
+    long getRejected();
+}
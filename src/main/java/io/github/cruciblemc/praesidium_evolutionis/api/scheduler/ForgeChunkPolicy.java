@@ -0,0 +1,18 @@
+package io.github.cruciblemc.praesidium_evolutionis.api.scheduler;
+
+/**
+ * What happens to a task bound to a chunk when that chunk is not loaded.
+ *
+ * @see ForgeScheduler#runTaskInChunk(cpw.mods.fml.common.ModContainer, net.minecraft.world.World, int, int, ForgeChunkPolicy, Runnable)
+ */
+public enum ForgeChunkPolicy {
+    /**
+     * The task is cancelled if its chunk unloads before it runs, even if the chunk is loaded again in the meantime.
+     */
+    DROP,
+    /**
+     * The task waits for its chunk to be loaded again and runs on the tick after that. It is only cancelled if
+     * its whole world unloads, or if too many tasks already wait for their chunk, as set in the config.
+     */
+    PARK
+}
@@ -0,0 +1,102 @@
+package io.github.cruciblemc.praesidium_evolutionis.api.scheduler;
+
+import io.github.cruciblemc.praesidium_evolutionis.api.tracking.Identification;
+import net.minecraft.block.Block;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.world.ChunkPosition;
+
+import java.util.Set;
+
+/**
+ * An immutable copy of a chunk taken on the main thread, that can be read from any thread, created by
+ * {@link ForgeScheduler#snapshotChunks(cpw.mods.fml.common.ModContainer, net.minecraft.world.World, java.util.Collection, ForgeSnapshotOption...)}.
+ * <p>
+ * Coordinates are relative to the chunk like in {@link net.minecraft.world.chunk.Chunk}: x and z go from 0 to 15,
+ * y from 0 to 255. The snapshot does not follow the world, it shows the chunk as it was on the tick it was taken.
+ */
+public interface ForgeChunkSnapshot {
+
+    /**
+     * @return The dimension id of the world the chunk belongs to.
+     */
+    int getDimension();
+
+    /**
+     * @return The x coordinate of the chunk.
+     */
+    int getChunkX();
+
+    /**
+     * @return The z coordinate of the chunk.
+     */
+    int getChunkZ();
+
+    /**
+     * @return The tick of the scheduler the snapshot was taken on.
+     */
+    long getCaptureTick();
+
+    /**
+     * Checks whether a 16 blocks high section of the chunk holds nothing but air, to skip it when scanning.
+     *
+     * @param section The section index, from 0 to 15.
+     * @return true if the section is empty.
+     */
+    boolean isSectionEmpty(int section);
+
+    /**
+     * @param x The x coordinate in the chunk.
+     * @param y The y coordinate.
+     * @param z The z coordinate in the chunk.
+     * @return The id of the block, 0 for air.
+     * @throws IndexOutOfBoundsException if the coordinates are outside the chunk.
+     */
+    int getBlockId(int x, int y, int z) throws IndexOutOfBoundsException;
+
+    /**
+     * @param x The x coordinate in the chunk.
+     * @param y The y coordinate.
+     * @param z The z coordinate in the chunk.
+     * @return The block, air for empty blocks.
+     * @throws IndexOutOfBoundsException if the coordinates are outside the chunk.
+     */
+    Block getBlock(int x, int y, int z) throws IndexOutOfBoundsException;
+
+    /**
+     * @param x The x coordinate in the chunk.
+     * @param y The y coordinate.
+     * @param z The z coordinate in the chunk.
+     * @return The metadata of the block.
+     * @throws IndexOutOfBoundsException if the coordinates are outside the chunk.
+     */
+    int getBlockMetadata(int x, int y, int z) throws IndexOutOfBoundsException;
+
+    /**
+     * Returns where the tile entities of the chunk are, relative to the chunk. Empty unless the snapshot was taken
+     * with {@link ForgeSnapshotOption#TILE_DATA} or {@link ForgeSnapshotOption#TILE_OWNERS}.
+     *
+     * @return An unmodifiable set of positions.
+     */
+    Set<ChunkPosition> getTilePositions();
+
+    /**
+     * Returns the NBT a tile entity was saved to, when the snapshot was taken with
+     * {@link ForgeSnapshotOption#TILE_DATA}.
+     *
+     * @param x The x coordinate in the chunk.
+     * @param y The y coordinate.
+     * @param z The z coordinate in the chunk.
+     * @return A copy of the tile entity's NBT, null if there is no tile entity there or it failed to save.
+     */
+    NBTTagCompound getTileData(int x, int y, int z);
+
+    /**
+     * Returns the owner of a tile entity, when the snapshot was taken with {@link ForgeSnapshotOption#TILE_OWNERS}.
+     *
+     * @param x The x coordinate in the chunk.
+     * @param y The y coordinate.
+     * @param z The z coordinate in the chunk.
+     * @return The tile entity's owner, null if there is no tile entity there.
+     */
+    Identification getTileOwner(int x, int y, int z);
+}
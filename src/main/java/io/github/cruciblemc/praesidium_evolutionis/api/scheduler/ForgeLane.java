@@ -0,0 +1,106 @@
+package io.github.cruciblemc.praesidium_evolutionis.api.scheduler;
+
+import cpw.mods.fml.common.gameevent.TickEvent;
+
+/**
+ * A point of the tick where synchronous tasks can be run.
+ * <p>
+ * By default tasks run at the start of the tick, before any world is ticked. A lane moves them to the end of the
+ * tick, or into the tick of a specific dimension, so they run right where the data they work on was just updated.
+ * World lanes only exist on the server, and their tasks wait while the dimension isn't loaded.
+ * <p>
+ * Every lane shares the tick counter of its scheduler, delays and periods are counted in server ticks whatever
+ * the lane.
+ */
+public final class ForgeLane {
+
+    /**
+     * Start of the tick, where tasks run when no lane is given.
+     */
+    public static final ForgeLane TICK_START = new ForgeLane(TickEvent.Phase.START, false, 0);
+
+    /**
+     * End of the tick, after every world was ticked.
+     */
+    public static final ForgeLane TICK_END = new ForgeLane(TickEvent.Phase.END, false, 0);
+
+    private final TickEvent.Phase phase;
+    private final boolean world;
+    private final int dimension;
+
+    private ForgeLane(final TickEvent.Phase phase, final boolean world, final int dimension) {
+        this.phase = phase;
+        this.world = world;
+        this.dimension = dimension;
+    }
+
+    /**
+     * Returns the lane of a dimension's tick.
+     *
+     * @param dimension The dimension id.
+     * @param phase     Whether to run before or after the world is ticked.
+     * @return The lane.
+     * @throws IllegalArgumentException if phase is null.
+     */
+    public static ForgeLane world(final int dimension, final TickEvent.Phase phase) throws IllegalArgumentException {
+        if (phase == null) {
+            throw new IllegalArgumentException("Phase cannot be null");
+        }
+        return new ForgeLane(phase, true, dimension);
+    }
+
+    /**
+     * @return The phase of the tick event this lane runs in.
+     */
+    public TickEvent.Phase getPhase() {
+        return phase;
+    }
+
+    /**
+     * @return true if this lane runs in the tick of a dimension.
+     */
+    public boolean isWorld() {
+        return world;
+    }
+
+    /**
+     * @return The dimension id of a world lane, 0 otherwise.
+     */
+    public int getDimension() {
+        return dimension;
+    }
+
+    /**
+     * Checks whether this lane matches a tick event, without creating a lane for it.
+     *
+     * @param phase     The phase of the event.
+     * @param world     Whether the event is a world tick.
+     * @param dimension The dimension id of a world tick.
+     * @return true if tasks of this lane should run in that event.
+     */
+    public boolean matches(final TickEvent.Phase phase, final boolean world, final int dimension) {
+        return this.phase == phase && this.world == world && (!world || this.dimension == dimension);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ForgeLane)) {
+            return false;
+        }
+        final ForgeLane lane = (ForgeLane) o;
+        return matches(lane.phase, lane.world, lane.dimension);
+    }
+
+    @Override
+    public int hashCode() {
+        return (phase.hashCode() * 31 + Boolean.hashCode(world)) * 31 + dimension;
+    }
+
+    @Override
+    public String toString() {
+        return world ? "ForgeLane{dimension=" + dimension + ", " + phase + "}" : "ForgeLane{" + phase + "}";
+    }
+}
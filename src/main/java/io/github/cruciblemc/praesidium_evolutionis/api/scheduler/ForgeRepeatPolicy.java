@@ -0,0 +1,95 @@
+package io.github.cruciblemc.praesidium_evolutionis.api.scheduler;
+
+/**
+ * How a repeating task is rescheduled when a run starts late.
+ * <p>
+ * A run of a tick based task starts late when the tick budget carried it over to a later tick, a run of a wall
+ * clock task when the timer fell behind. Every run is due on a point of a grid, starting at the first run and
+ * spaced by the period. A policy picks the point the task runs at next, given the point it was due at and the time
+ * it actually ran.
+ */
+public final class ForgeRepeatPolicy {
+
+    /**
+     * Waits a full period after the run actually started, so a late run pushes back every run after it and the task
+     * drifts off its grid. This is the default of tick based repeating tasks.
+     */
+    public static final ForgeRepeatPolicy FIXED_DELAY = new ForgeRepeatPolicy(-1);
+
+    /**
+     * Stays on the grid and drops the points that already passed, so a late run is never followed by catch-up runs.
+     * This is the default of wall clock repeating tasks.
+     */
+    public static final ForgeRepeatPolicy SKIP_MISSED = new ForgeRepeatPolicy(0);
+
+    private final int maxCatchUp;
+
+    private ForgeRepeatPolicy(final int maxCatchUp) {
+        this.maxCatchUp = maxCatchUp;
+    }
+
+    /**
+     * Returns a policy that stays on the grid and makes up for the points that already passed, running the task
+     * again right away.
+     * <p>
+     * Only the last {@code maxCatchUp} missed points are made up for, the older ones are dropped. Pass
+     * {@link Integer#MAX_VALUE} when every run counts, for accounting tasks that must run exactly once per period.
+     *
+     * @param maxCatchUp The most runs made up for after a late run.
+     * @return The policy.
+     * @throws IllegalArgumentException if maxCatchUp is negative.
+     */
+    public static ForgeRepeatPolicy fixedRate(final int maxCatchUp) throws IllegalArgumentException {
+        if (maxCatchUp < 0) {
+            throw new IllegalArgumentException("Catch-up limit cannot be negative");
+        }
+        return maxCatchUp == 0 ? SKIP_MISSED : new ForgeRepeatPolicy(maxCatchUp);
+    }
+
+    /**
+     * @return true if runs are spaced from the time they actually started instead of kept on a grid.
+     */
+    public boolean isFixedDelay() {
+        return maxCatchUp < 0;
+    }
+
+    /**
+     * @return The most runs made up for after a late run, 0 for {@link #SKIP_MISSED} and {@link #FIXED_DELAY}.
+     */
+    public int getMaxCatchUp() {
+        return Math.max(0, maxCatchUp);
+    }
+
+    /**
+     * Picks the point the task runs at next, in ticks or nanoseconds alike.
+     *
+     * @param due    The point the run was due at.
+     * @param now    The time the run started at, never before due.
+     * @param period The period of the task.
+     * @return The point the next run is due at, at or before now when a missed run has to be made up for.
+     */
+    public long next(final long due, final long now, final long period) {
+        if (maxCatchUp < 0) {
+            return add(now, period);
+        }
+        final long next = add(due, period);
+        if (next > now) {
+            return next;
+        }
+        // Points of the grid that passed without a run
+        final long missed = (now - next) / period + 1;
+        if (missed <= maxCatchUp) {
+            return next;
+        }
+        return add(next, (missed - maxCatchUp) * period);
+    }
+
+    private static long add(final long time, final long delta) {
+        return time > 0 && delta > Long.MAX_VALUE - time ? Long.MAX_VALUE : time + delta;
+    }
+
+    @Override
+    public String toString() {
+        return maxCatchUp < 0 ? "ForgeRepeatPolicy{FIXED_DELAY}" : maxCatchUp == 0 ? "ForgeRepeatPolicy{SKIP_MISSED}" : "ForgeRepeatPolicy{fixedRate=" + maxCatchUp + "}";
+    }
+}
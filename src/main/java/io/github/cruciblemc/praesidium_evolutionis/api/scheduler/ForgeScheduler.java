@@ -1,10 +1,21 @@
 package io.github.cruciblemc.praesidium_evolutionis.api.scheduler;
 
 import cpw.mods.fml.common.ModContainer;
+import net.minecraft.world.ChunkCoordIntPair;
+import net.minecraft.world.World;
 
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
 
 /**
  * Represents the scheduler API for Praesidium Evolutionis, a Forge environment port of Bukkit's scheduler.
@@ -48,8 +59,9 @@ public interface ForgeScheduler {
      * Calls a method on the main thread and returns a Future object.
      * The task will be executed by the main thread that the scheduler belongs to.
      * <p>
-     * Note that the Future.get() methods must NOT be called from the main thread.
-     * There is typically a latency of at least 10ms until the isDone() method returns true.
+     * Calling Future.get() from the main thread runs the method right away, as the main thread
+     * could never run it while waiting. Otherwise there is typically a latency of at least 10ms
+     * until the isDone() method returns true.
      *
      * @param <T>  The callable's return type.
      * @param mod  The mod that owns the task.
@@ -58,6 +70,137 @@ public interface ForgeScheduler {
      */
     <T> Future<T> callSyncMethod(ModContainer mod, Callable<T> task);
 
+    /**
+     * Calls a method on the main thread and returns a CompletableFuture completed with its result.
+     * <p>
+     * Unlike {@link #callSyncMethod(ModContainer, Callable)}, nothing has to wait on the result: further stages
+     * can be chained and will run once the method completes. Cancelling the future before the method starts
+     * cancels the task, once it started the future can no longer be cancelled.
+     *
+     * @param <T>  The callable's return type.
+     * @param mod  The mod that owns the task.
+     * @param task The task to be executed.
+     * @return A CompletableFuture completed by the main thread.
+     */
+    <T> CompletableFuture<T> supplySync(ModContainer mod, Callable<T> task);
+
+    /**
+     * Calls several methods on the main thread in a single sync task and returns a CompletableFuture completed with
+     * their results, in the order of the list.
+     * <p>
+     * This replaces one {@link #callSyncMethod(ModContainer, Callable)} per lookup when an async task needs many
+     * values from the world: the methods share one slot in the queue and one wait, instead of each costing its
+     * own round trip. They all run on the same tick, one after the other, so a batch should stay small enough not
+     * to stall it.
+     * <p>
+     * If a method throws, the rest of the batch is skipped and the future completes exceptionally with what it
+     * threw. Cancelling the future before the batch starts cancels the task. An empty list returns a completed
+     * future without scheduling anything.
+     *
+     * @param <T>   The callables' return type.
+     * @param mod   The mod that owns the task.
+     * @param tasks The tasks to be executed, the list is copied.
+     * @return A CompletableFuture completed by the main thread with an unmodifiable list of results.
+     */
+    <T> CompletableFuture<List<T>> callSyncBatch(ModContainer mod, List<? extends Callable<? extends T>> tasks);
+
+    /**
+     * Walks an iterator on the main thread a slice at a time, starting on the next tick.
+     * <p>
+     * Every tick, elements are handed to the action until the budget is spent, and the walk resumes on the next
+     * tick where it stopped. At least one element is processed per tick, however small the budget. The iterator is
+     * only touched from the main thread, but must not be changed by anything else while the walk goes on.
+     * <p>
+     * The future completes once the iterator is exhausted, or exceptionally with whatever the action threw, which
+     * stops the walk. Cancelling the future stops the walk before the next element, as does cancelling the task.
+     *
+     * @param <T>         The type of the elements.
+     * @param mod         The mod that owns the task.
+     * @param iterator    The elements to walk.
+     * @param action      What to do with each element.
+     * @param budgetNanos How long the walk may run every tick, in nanoseconds.
+     * @return A CompletableFuture completed by the main thread when the walk is over.
+     */
+    <T> CompletableFuture<Void> forEachSliced(ModContainer mod, Iterator<? extends T> iterator, Consumer<? super T> action, long budgetNanos);
+
+    /**
+     * Walks a spliterator on the main thread a slice at a time, starting on the next tick.
+     *
+     * @param <T>         The type of the elements.
+     * @param mod         The mod that owns the task.
+     * @param spliterator The elements to walk.
+     * @param action      What to do with each element.
+     * @param budgetNanos How long the walk may run every tick, in nanoseconds.
+     * @return A CompletableFuture completed by the main thread when the walk is over.
+     * @see #forEachSliced(ModContainer, Iterator, Consumer, long)
+     */
+    <T> CompletableFuture<Void> forEachSliced(ModContainer mod, Spliterator<T> spliterator, Consumer<? super T> action, long budgetNanos);
+
+    /**
+     * Copies chunks of a world on the main thread, so they can be read from async tasks without a round trip to the
+     * main thread for every block.
+     * <p>
+     * Every chunk is captured on the same tick, in a single sync task. Chunks that are not loaded by then are
+     * skipped, the scheduler never loads a chunk for a snapshot. Blocks and metadata are always copied, tile
+     * entities only when asked for with the options, saving them to NBT is by far the most expensive part.
+     * <p>
+     * Cancelling the future before the task starts cancels the capture.
+     *
+     * @param mod     The mod that owns the task.
+     * @param world   The world the chunks belong to, of this scheduler's side.
+     * @param chunks  The coordinates of the chunks.
+     * @param options What to copy besides the blocks.
+     * @return A CompletableFuture completed by the main thread with the snapshots of the loaded chunks, in the
+     * order they were given.
+     * @throws IllegalArgumentException if the world belongs to the other side.
+     */
+    CompletableFuture<List<ForgeChunkSnapshot>> snapshotChunks(ModContainer mod, World world, Collection<ChunkCoordIntPair> chunks, ForgeSnapshotOption... options) throws IllegalArgumentException;
+
+    /**
+     * Copies chunks of a world on the main thread, then hands the snapshots to a task run asynchronously.
+     * <pre>{@code
+     * scheduler.runSnapshotTaskAsynchronously(mod, world, claim.getChunks(), snapshots -> {
+     *     for (ForgeChunkSnapshot snapshot : snapshots) {
+     *         scan(snapshot);
+     *     }
+     * }, ForgeSnapshotOption.TILE_OWNERS);
+     * }</pre>
+     *
+     * @param mod     The mod that owns the tasks.
+     * @param world   The world the chunks belong to, of this scheduler's side.
+     * @param chunks  The coordinates of the chunks.
+     * @param task    The task to be run asynchronously with the snapshots.
+     * @param options What to copy besides the blocks.
+     * @return A CompletableFuture completed once the task ran, exceptionally with whatever it threw, and cancelled
+     * if the task never ran. Cancelling it before the task starts cancels the capture or the task.
+     * @throws IllegalArgumentException if the world belongs to the other side.
+     * @see #snapshotChunks(ModContainer, World, Collection, ForgeSnapshotOption...)
+     */
+    CompletableFuture<Void> runSnapshotTaskAsynchronously(ModContainer mod, World world, Collection<ChunkCoordIntPair> chunks, Consumer<? super List<ForgeChunkSnapshot>> task, ForgeSnapshotOption... options) throws IllegalArgumentException;
+
+    /**
+     * Returns an Executor that runs every command on the main thread as a sync task owned by the mod,
+     * the same as {@link #runTask(ModContainer, Runnable)}.
+     * <p>
+     * Async code can use it to hop back to the main thread without blocking, for example:
+     * <pre>{@code
+     * CompletableFuture.supplyAsync(this::loadData, pool)
+     *         .thenAcceptAsync(this::applyToWorld, scheduler.getMainThreadExecutor(mod));
+     * }</pre>
+     *
+     * @param mod The mod that owns the tasks.
+     * @return An Executor backed by the main thread of this scheduler.
+     */
+    Executor getMainThreadExecutor(ModContainer mod);
+
+    /**
+     * Creates an empty group of tasks, cancelled and awaited together, see {@link ForgeTaskGroup}.
+     *
+     * @param mod The mod that owns the tasks.
+     * @return A new task group.
+     */
+    ForgeTaskGroup createTaskGroup(ModContainer mod);
+
     /**
      * Cancels a task with the specified ID.
      *
@@ -65,6 +208,14 @@ public interface ForgeScheduler {
      */
     void cancelTask(int taskId);
 
+    /**
+     * Cancels every task with one of the specified IDs, in a single pass that is cheaper than cancelling them one
+     * by one when they share their mod and lane, like the tasks of a batch.
+     *
+     * @param taskIds The ID numbers of the tasks to be canceled.
+     */
+    void cancelTasks(int[] taskIds);
+
     /**
      * Cancels all tasks associated with a particular mod.
      *
@@ -77,6 +228,16 @@ public interface ForgeScheduler {
      */
     void cancelAllTasks();
 
+    /**
+     * Returns how many tasks of a mod are queued to run, including repeating tasks between runs.
+     * <p>
+     * This is a constant time lookup, suitable for monitoring.
+     *
+     * @param mod The mod that owns the tasks.
+     * @return The number of live tasks owned by the mod.
+     */
+    int getTaskCount(ModContainer mod);
+
     /**
      * Checks if a task is currently running.
      * <p>
@@ -119,6 +280,75 @@ public interface ForgeScheduler {
      */
     List<ForgeTask> getPendingTasks();
 
+    /**
+     * Returns the run time of tasks aggregated per owning mod, sync and async runs combined.
+     * <p>
+     * Timings are only recorded while profiling is enabled in the config.
+     *
+     * @return A snapshot of the mods that ran tasks, with their live timings.
+     */
+    Map<ModContainer, ForgeTaskTimings> getTimingsByMod();
+
+    /**
+     * Returns the run time of tasks aggregated per task class, that is the class of the scheduled
+     * {@link Runnable} or {@link Callable}.
+     * <p>
+     * Timings are only recorded while profiling is enabled in the config.
+     *
+     * @return A snapshot of the task classes that ran, with their live timings.
+     */
+    Map<Class<?>, ForgeTaskTimings> getTimingsByTaskClass();
+
+    /**
+     * Discards every timing recorded so far.
+     */
+    void resetTimings();
+
+    /**
+     * Returns the async admission counters of every mod that scheduled async tasks.
+     *
+     * @return A snapshot of the mods, with their live counters.
+     */
+    Map<ModContainer, ForgeAsyncStats> getAsyncStatsByMod();
+
+    /**
+     * Returns how many repeating tasks fire on each tick of their period, for every period in use.
+     * <p>
+     * A task with a period of 20 fires on the tick of the period its runs fall on, that is the tick counter modulo
+     * 20, and is counted in that slot of the array of period 20. Tasks piled on a few slots cause a spike every
+     * period; enable staggering in the config to spread new tasks over the period. Periods of 1 tick and longer
+     * than the configured maximum are not counted.
+     *
+     * @return A snapshot of the periods, with the number of tasks per slot.
+     */
+    Map<Long, int[]> getRepeatingTaskSlots();
+
+    /**
+     * Returns the time sync tasks are allowed to take every tick, as set in the config.
+     * <p>
+     * The budget is shared by the start of the tick and every lane, in the order they run. Ready tasks that don't
+     * fit in it are carried over to the next tick.
+     *
+     * @return The tick budget in nanoseconds, 0 if unlimited.
+     */
+    long getTickBudgetNanos();
+
+    /**
+     * Returns how long the last tick of this scheduler that ran tasks took to run them, at the start of the tick and
+     * in every lane that ran so far. Idle ticks are not counted. Compare it against {@link #getTickBudgetNanos()} to
+     * know how much of the budget was used.
+     *
+     * @return The time spent on the last busy tick in nanoseconds.
+     */
+    long getLastTickNanos();
+
+    /**
+     * Returns how many ready tasks were carried over to the next tick because the budget ran out, lanes included.
+     *
+     * @return The number of tasks deferred by the last busy tick.
+     */
+    int getLastTickDeferredTasks();
+
     /**
      * Runs a task on the next tick.
      *
@@ -179,6 +409,220 @@ public interface ForgeScheduler {
      */
     ForgeTask runTaskTimer(ModContainer mod, Runnable task, long delay, long period) throws IllegalArgumentException;
 
+    /**
+     * Runs a repeating task until cancelled, starting after a specified number of ticks, rescheduled by the given
+     * policy when a run starts late.
+     * <p>
+     * A run starts late when the tick budget carries it over to a later tick. Without a policy the task waits a full
+     * period after every run, see {@link ForgeRepeatPolicy#FIXED_DELAY}.
+     *
+     * @param mod    The reference to the mod scheduling the task.
+     * @param task   The task to be run.
+     * @param delay  The number of ticks to wait before running the task for the first time.
+     * @param period The number of ticks to wait between runs.
+     * @param policy How runs are rescheduled after a late run.
+     * @return A ForgeTask object that contains the task ID number.
+     * @throws IllegalArgumentException if mod, task or policy is null.
+     */
+    ForgeTask runTaskTimer(ModContainer mod, Runnable task, long delay, long period, ForgeRepeatPolicy policy) throws IllegalArgumentException;
+
+    /**
+     * Runs a task on the next tick, or after the debounce, unless a task with the same key is still pending.
+     * <p>
+     * While a task submitted with a key hasn't started yet, submitting another one with an equal key replaces it
+     * instead of scheduling a second run, and pushes the run back by the debounce again. The run is never pushed
+     * further than max wait ticks after the first submission. Once the task starts, the key is free again.
+     * Keys are scoped to the mod.
+     *
+     * @param mod      The reference to the mod scheduling the task.
+     * @param key      The key identifying the work, compared with {@link Object#equals(Object)}.
+     * @param task     The task to be run, replacing the pending one.
+     * @param debounce The number of ticks to wait after the latest submission before running the task.
+     * @param maxWait  The maximum number of ticks the task can be pushed back since the first submission, 0 for no limit.
+     * @return The ForgeTask of the pending task, the same one for every submission it absorbed.
+     * @throws IllegalArgumentException if mod, key or task is null.
+     */
+    ForgeTask runTaskKeyed(ModContainer mod, Object key, Runnable task, long debounce, long maxWait) throws IllegalArgumentException;
+
+    /**
+     * Runs a task with a value on the next tick, or after the debounce, unless a task with the same key is still
+     * pending, in which case the value is merged into the pending task's value.
+     * See {@link #runTaskKeyed(ModContainer, Object, Runnable, long, long)}.
+     *
+     * @param mod      The reference to the mod scheduling the task.
+     * @param key      The key identifying the work, compared with {@link Object#equals(Object)}.
+     * @param value    The value to hand to the task.
+     * @param merger   Merges the pending value with a newly submitted one, called under a lock, keep it short.
+     * @param task     The task to be run with the merged value.
+     * @param debounce The number of ticks to wait after the latest submission before running the task.
+     * @param maxWait  The maximum number of ticks the task can be pushed back since the first submission, 0 for no limit.
+     * @param <T>      The type of the value.
+     * @return The ForgeTask of the pending task, the same one for every submission it absorbed.
+     * @throws IllegalArgumentException if mod, key, merger or task is null.
+     */
+    <T> ForgeTask runTaskKeyed(ModContainer mod, Object key, T value, BinaryOperator<T> merger, Consumer<? super T> task, long debounce, long maxWait) throws IllegalArgumentException;
+
+    /**
+     * Asynchronous version of {@link #runTaskKeyed(ModContainer, Object, Runnable, long, long)}.
+     * Sync and async tasks never share a key.
+     *
+     * <p>When scheduling tasks asynchronously, ensure thread-safety and avoid accessing any API in any mod,
+     * Forge, or Minecraft.</p>
+     *
+     * @param mod      The reference to the mod scheduling the task.
+     * @param key      The key identifying the work, compared with {@link Object#equals(Object)}.
+     * @param task     The task to be run, replacing the pending one.
+     * @param debounce The number of ticks to wait after the latest submission before running the task.
+     * @param maxWait  The maximum number of ticks the task can be pushed back since the first submission, 0 for no limit.
+     * @return The ForgeTask of the pending task, the same one for every submission it absorbed.
+     * @throws IllegalArgumentException if mod, key or task is null.
+     */
+    ForgeTask runTaskKeyedAsynchronously(ModContainer mod, Object key, Runnable task, long debounce, long maxWait) throws IllegalArgumentException;
+
+    /**
+     * Asynchronous version of {@link #runTaskKeyed(ModContainer, Object, Object, BinaryOperator, Consumer, long, long)}.
+     * Sync and async tasks never share a key.
+     *
+     * <p>When scheduling tasks asynchronously, ensure thread-safety and avoid accessing any API in any mod,
+     * Forge, or Minecraft.</p>
+     *
+     * @param mod      The reference to the mod scheduling the task.
+     * @param key      The key identifying the work, compared with {@link Object#equals(Object)}.
+     * @param value    The value to hand to the task.
+     * @param merger   Merges the pending value with a newly submitted one, called under a lock, keep it short.
+     * @param task     The task to be run with the merged value.
+     * @param debounce The number of ticks to wait after the latest submission before running the task.
+     * @param maxWait  The maximum number of ticks the task can be pushed back since the first submission, 0 for no limit.
+     * @param <T>      The type of the value.
+     * @return The ForgeTask of the pending task, the same one for every submission it absorbed.
+     * @throws IllegalArgumentException if mod, key, merger or task is null.
+     */
+    <T> ForgeTask runTaskKeyedAsynchronously(ModContainer mod, Object key, T value, BinaryOperator<T> merger, Consumer<? super T> task, long debounce, long maxWait) throws IllegalArgumentException;
+
+    /**
+     * Runs a task on the next tick, if the given chunk is loaded by then.
+     * <p>
+     * The task never causes its chunk to be loaded. If the chunk isn't loaded when the task is due, or unloads
+     * before the task ran, the policy decides whether the task is cancelled or waits for the chunk to be loaded
+     * again. Tasks due on the same tick are run grouped by chunk, after the other tasks of the tick.
+     *
+     * @param mod    The reference to the mod scheduling the task.
+     * @param world  The world of the chunk.
+     * @param chunkX The x coordinate of the chunk.
+     * @param chunkZ The z coordinate of the chunk.
+     * @param policy What to do with the task while the chunk is not loaded.
+     * @param task   The task to be run.
+     * @return A ForgeTask object that contains the task ID number.
+     * @throws IllegalArgumentException if mod, world, policy or task is null, or if world is a client world.
+     */
+    ForgeTask runTaskInChunk(ModContainer mod, World world, int chunkX, int chunkZ, ForgeChunkPolicy policy, Runnable task) throws IllegalArgumentException;
+
+    /**
+     * Runs a task after a specified number of ticks, if the given chunk is loaded by then.
+     * See {@link #runTaskInChunk(ModContainer, World, int, int, ForgeChunkPolicy, Runnable)}.
+     *
+     * @param mod    The reference to the mod scheduling the task.
+     * @param world  The world of the chunk.
+     * @param chunkX The x coordinate of the chunk.
+     * @param chunkZ The z coordinate of the chunk.
+     * @param policy What to do with the task while the chunk is not loaded.
+     * @param task   The task to be run.
+     * @param delay  The number of ticks to wait before running the task.
+     * @return A ForgeTask object that contains the task ID number.
+     * @throws IllegalArgumentException if mod, world, policy or task is null, or if world is a client world.
+     */
+    ForgeTask runTaskLaterInChunk(ModContainer mod, World world, int chunkX, int chunkZ, ForgeChunkPolicy policy, Runnable task, long delay) throws IllegalArgumentException;
+
+    /**
+     * Runs a task on the next tick, in the given lane.
+     *
+     * @param mod  The reference to the mod scheduling the task.
+     * @param lane The point of the tick where the task runs.
+     * @param task The task to be run.
+     * @return A ForgeTask object that contains the task ID number.
+     * @throws IllegalArgumentException if mod, lane or task is null, or if lane is a world lane on the client.
+     */
+    ForgeTask runTask(ModContainer mod, ForgeLane lane, Runnable task) throws IllegalArgumentException;
+
+    /**
+     * Runs a task after a specified number of ticks, in the given lane.
+     *
+     * @param mod   The reference to the mod scheduling the task.
+     * @param lane  The point of the tick where the task runs.
+     * @param task  The task to be run.
+     * @param delay The number of ticks to wait before running the task.
+     * @return A ForgeTask object that contains the task ID number.
+     * @throws IllegalArgumentException if mod, lane or task is null, or if lane is a world lane on the client.
+     */
+    ForgeTask runTaskLater(ModContainer mod, ForgeLane lane, Runnable task, long delay) throws IllegalArgumentException;
+
+    /**
+     * Runs a repeating task until cancelled, starting after a specified number of ticks, in the given lane.
+     *
+     * @param mod    The reference to the mod scheduling the task.
+     * @param lane   The point of the tick where the task runs.
+     * @param task   The task to be run.
+     * @param delay  The number of ticks to wait before running the task for the first time.
+     * @param period The number of ticks to wait between runs.
+     * @return A ForgeTask object that contains the task ID number.
+     * @throws IllegalArgumentException if mod, lane or task is null, or if lane is a world lane on the client.
+     */
+    ForgeTask runTaskTimer(ModContainer mod, ForgeLane lane, Runnable task, long delay, long period) throws IllegalArgumentException;
+
+    /**
+     * Runs a repeating task until cancelled, starting after a specified number of ticks, in the given lane,
+     * rescheduled by the given policy when a run starts late.
+     *
+     * @param mod    The reference to the mod scheduling the task.
+     * @param lane   The point of the tick where the task runs.
+     * @param task   The task to be run.
+     * @param delay  The number of ticks to wait before running the task for the first time.
+     * @param period The number of ticks to wait between runs.
+     * @param policy How runs are rescheduled after a late run.
+     * @return A ForgeTask object that contains the task ID number.
+     * @throws IllegalArgumentException if mod, lane, task or policy is null, or if lane is a world lane on the client.
+     * @see #runTaskTimer(ModContainer, Runnable, long, long, ForgeRepeatPolicy)
+     */
+    ForgeTask runTaskTimer(ModContainer mod, ForgeLane lane, Runnable task, long delay, long period, ForgeRepeatPolicy policy) throws IllegalArgumentException;
+
+    /**
+     * Runs a task on the next tick, ahead of the tasks of lower priority that are ready on the same tick.
+     *
+     * @param mod      The reference to the mod scheduling the task.
+     * @param priority The priority of the task, see {@link ForgeTaskPriority}.
+     * @param task     The task to be run.
+     * @return A ForgeTask object that contains the task ID number.
+     * @throws IllegalArgumentException if mod, priority or task is null.
+     */
+    ForgeTask runTask(ModContainer mod, ForgeTaskPriority priority, Runnable task) throws IllegalArgumentException;
+
+    /**
+     * Runs a task after a specified number of ticks, ahead of the tasks of lower priority that are ready on the
+     * same tick.
+     *
+     * @param mod      The reference to the mod scheduling the task.
+     * @param priority The priority of the task, see {@link ForgeTaskPriority}.
+     * @param task     The task to be run.
+     * @param delay    The number of ticks to wait before running the task.
+     * @return A ForgeTask object that contains the task ID number.
+     * @throws IllegalArgumentException if mod, priority or task is null.
+     */
+    ForgeTask runTaskLater(ModContainer mod, ForgeTaskPriority priority, Runnable task, long delay) throws IllegalArgumentException;
+
+    /**
+     * Runs a repeating task until cancelled, starting after a specified number of ticks, ahead of the tasks of
+     * lower priority that are ready on the same tick.
+     *
+     * @param mod      The reference to the mod scheduling the task.
+     * @param priority The priority of the task, see {@link ForgeTaskPriority}.
+     * @param task     The task to be run.
+     * @param delay    The number of ticks to wait before running the task for the first time.
+     * @param period   The number of ticks to wait between runs.
+     * @return A ForgeTask object that contains the task ID number.
+     * @throws IllegalArgumentException if mod, priority or task is null.
+     */
+    ForgeTask runTaskTimer(ModContainer mod, ForgeTaskPriority priority, Runnable task, long delay, long period) throws IllegalArgumentException;
+
     /**
      * Runs a repeating task asynchronously until cancelled, starting after a specified number of ticks.
      *
@@ -193,4 +637,106 @@ public interface ForgeScheduler {
      * @throws IllegalArgumentException if mod is null or task is null.
      */
     ForgeTask runTaskTimerAsynchronously(ModContainer mod, Runnable task, long delay, long period) throws IllegalArgumentException;
-}
\ No newline at end of file
+
+    /**
+     * Runs a repeating task asynchronously until cancelled, starting after a specified number of ticks,
+     * rescheduled by the given policy when a run is dispatched late.
+     *
+     * <p>When scheduling tasks asynchronously, ensure thread-safety and avoid accessing any API in any mod,
+     * Forge, or Minecraft.</p>
+     *
+     * @param mod    The reference to the mod scheduling the task.
+     * @param task   The task to be run.
+     * @param delay  The number of ticks to wait before running the task for the first time.
+     * @param period The number of ticks to wait between runs.
+     * @param policy How runs are rescheduled after a late run.
+     * @return A ForgeTask object that contains the task ID number.
+     * @throws IllegalArgumentException if mod, task or policy is null.
+     * @see #runTaskTimer(ModContainer, Runnable, long, long, ForgeRepeatPolicy)
+     */
+    ForgeTask runTaskTimerAsynchronously(ModContainer mod, Runnable task, long delay, long period, ForgeRepeatPolicy policy) throws IllegalArgumentException;
+
+    /**
+     * Runs a task asynchronously after a wall clock delay, whatever the tick rate of the server.
+     * <p>
+     * The delay is timed by a dedicated timer thread that never waits on the main thread, so it keeps its
+     * precision when the server lags and may be shorter than a tick.
+     *
+     * <p>When scheduling tasks asynchronously, ensure thread-safety and avoid accessing any API in any mod,
+     * Forge, or Minecraft.</p>
+     *
+     * @param mod   The reference to the mod scheduling the task.
+     * @param task  The task to be run.
+     * @param delay The time to wait before running the task.
+     * @param unit  The unit of the delay.
+     * @return A ForgeTask object that contains the task ID number.
+     * @throws IllegalArgumentException if mod, task or unit is null.
+     */
+    ForgeTask runTaskLaterAsynchronously(ModContainer mod, Runnable task, long delay, TimeUnit unit) throws IllegalArgumentException;
+
+    /**
+     * Runs a repeating task asynchronously until cancelled, on a wall clock period, whatever the tick rate of the server.
+     * <p>
+     * Runs are started at a fixed rate by a dedicated timer thread, see
+     * {@link #runTaskLaterAsynchronously(ModContainer, Runnable, long, TimeUnit)}. A run that takes longer than the
+     * period doesn't delay the next one, and runs the timer missed are skipped, see {@link ForgeRepeatPolicy#SKIP_MISSED}.
+     *
+     * <p>When scheduling tasks asynchronously, ensure thread-safety and avoid accessing any API in any mod,
+     * Forge, or Minecraft.</p>
+     *
+     * @param mod    The reference to the mod scheduling the task.
+     * @param task   The task to be run.
+     * @param delay  The time to wait before running the task for the first time.
+     * @param period The time between the start of two runs.
+     * @param unit   The unit of the delay and period.
+     * @return A ForgeTask object that contains the task ID number.
+     * @throws IllegalArgumentException if mod, task or unit is null.
+     */
+    ForgeTask runTaskTimerAsynchronously(ModContainer mod, Runnable task, long delay, long period, TimeUnit unit) throws IllegalArgumentException;
+
+    /**
+     * Runs a repeating task asynchronously until cancelled, on a wall clock period, rescheduled by the given policy
+     * when the timer fell behind.
+     *
+     * <p>When scheduling tasks asynchronously, ensure thread-safety and avoid accessing any API in any mod,
+     * Forge, or Minecraft.</p>
+     *
+     * @param mod    The reference to the mod scheduling the task.
+     * @param task   The task to be run.
+     * @param delay  The time to wait before running the task for the first time.
+     * @param period The time between the start of two runs.
+     * @param unit   The unit of the delay and period.
+     * @param policy How runs are rescheduled after a late run.
+     * @return A ForgeTask object that contains the task ID number.
+     * @throws IllegalArgumentException if mod, task, unit or policy is null.
+     * @see #runTaskTimerAsynchronously(ModContainer, Runnable, long, long, TimeUnit)
+     */
+    ForgeTask runTaskTimerAsynchronously(ModContainer mod, Runnable task, long delay, long period, TimeUnit unit, ForgeRepeatPolicy policy) throws IllegalArgumentException;
+
+    /**
+     * Runs a batch of tasks on the next tick.
+     * <p>
+     * The whole batch is submitted at once, which is cheaper than calling {@link #runTask(ModContainer, Runnable)}
+     * for each task. Tasks of a batch run in the order of the collection.
+     *
+     * @param mod   The reference to the mod scheduling the tasks.
+     * @param tasks The tasks to be run.
+     * @return The ForgeTask objects of the tasks, in the order of the collection.
+     * @throws IllegalArgumentException if mod is null or any task is null.
+     */
+    List<ForgeTask> runTasks(ModContainer mod, Collection<? extends Runnable> tasks) throws IllegalArgumentException;
+
+    /**
+     * Runs a batch of repeating tasks until cancelled, starting after a specified number of ticks.
+     * <p>
+     * The whole batch is submitted at once, see {@link #runTasks(ModContainer, Collection)}.
+     *
+     * @param mod    The reference to the mod scheduling the tasks.
+     * @param tasks  The tasks to be run.
+     * @param delay  The number of ticks to wait before running the tasks for the first time.
+     * @param period The number of ticks to wait between runs, -1 to run the tasks only once.
+     * @return The ForgeTask objects of the tasks, in the order of the collection.
+     * @throws IllegalArgumentException if mod is null or any task is null.
+     */
+    List<ForgeTask> runTasksTimer(ModContainer mod, Collection<? extends Runnable> tasks, long delay, long period) throws IllegalArgumentException;
+}
@@ -0,0 +1,18 @@
+package io.github.cruciblemc.praesidium_evolutionis.api.scheduler;
+
+/**
+ * What a chunk snapshot copies on top of its blocks and metadata.
+ *
+ * @see ForgeScheduler#snapshotChunks(cpw.mods.fml.common.ModContainer, net.minecraft.world.World, java.util.Collection, ForgeSnapshotOption...)
+ */
+public enum ForgeSnapshotOption {
+    /**
+     * Saves every tile entity of the chunk to NBT, as it would be written to disk. This is the costly part of a
+     * snapshot, only ask for it when the data is read.
+     */
+    TILE_DATA,
+    /**
+     * Copies the owner of every tile entity of the chunk, nobody when tracking is unavailable.
+     */
+    TILE_OWNERS
+}
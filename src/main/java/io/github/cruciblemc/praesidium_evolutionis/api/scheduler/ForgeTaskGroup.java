@@ -0,0 +1,161 @@
+package io.github.cruciblemc.praesidium_evolutionis.api.scheduler;
+
+import cpw.mods.fml.common.ModContainer;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.world.World;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A set of tasks of one mod that are cancelled and awaited together, created by
+ * {@link ForgeScheduler#createTaskGroup(ModContainer)}.
+ * <p>
+ * A group follows a job made of several steps, for example loading data asynchronously, applying it on the main
+ * thread, then saving the result asynchronously. Each step submits the next one through the group, so the whole
+ * job is cancelled with a single {@link #cancel()} wherever it is at, without tracking task ids:
+ * <pre>{@code
+ * ForgeTaskGroup job = scheduler.createTaskGroup(mod).bindTo(tile);
+ * job.runTaskAsynchronously(() -> {
+ *     Data data = load();
+ *     job.runTask(() -> job.runTaskAsynchronously(() -> save(apply(data))));
+ * });
+ * }</pre>
+ * Once cancelled a group stays cancelled, tasks submitted to it afterwards are returned already cancelled and
+ * never run.
+ */
+public interface ForgeTaskGroup {
+
+    /**
+     * @return The mod owning the tasks of this group.
+     */
+    ModContainer getOwner();
+
+    /**
+     * Runs a task on the next tick, as part of this group.
+     *
+     * @param task The task to be run.
+     * @return A ForgeTask object that contains the task ID number.
+     * @throws IllegalArgumentException if task is null.
+     * @see ForgeScheduler#runTask(ModContainer, Runnable)
+     */
+    ForgeTask runTask(Runnable task) throws IllegalArgumentException;
+
+    /**
+     * Runs a task after a specified number of ticks, as part of this group.
+     *
+     * @param task  The task to be run.
+     * @param delay The number of ticks to wait before running the task.
+     * @return A ForgeTask object that contains the task ID number.
+     * @throws IllegalArgumentException if task is null.
+     * @see ForgeScheduler#runTaskLater(ModContainer, Runnable, long)
+     */
+    ForgeTask runTaskLater(Runnable task, long delay) throws IllegalArgumentException;
+
+    /**
+     * Runs a repeating task until it or this group is cancelled, as part of this group.
+     *
+     * @param task   The task to be run.
+     * @param delay  The number of ticks to wait before running the task for the first time.
+     * @param period The number of ticks to wait between runs.
+     * @return A ForgeTask object that contains the task ID number.
+     * @throws IllegalArgumentException if task is null.
+     * @see ForgeScheduler#runTaskTimer(ModContainer, Runnable, long, long)
+     */
+    ForgeTask runTaskTimer(Runnable task, long delay, long period) throws IllegalArgumentException;
+
+    /**
+     * Runs a task asynchronously, as part of this group.
+     *
+     * @param task The task to be run.
+     * @return A ForgeTask object that contains the task ID number.
+     * @throws IllegalArgumentException if task is null.
+     * @see ForgeScheduler#runTaskAsynchronously(ModContainer, Runnable)
+     */
+    ForgeTask runTaskAsynchronously(Runnable task) throws IllegalArgumentException;
+
+    /**
+     * Runs a task asynchronously after a specified number of ticks, as part of this group.
+     *
+     * @param task  The task to be run.
+     * @param delay The number of ticks to wait before running the task.
+     * @return A ForgeTask object that contains the task ID number.
+     * @throws IllegalArgumentException if task is null.
+     * @see ForgeScheduler#runTaskLaterAsynchronously(ModContainer, Runnable, long)
+     */
+    ForgeTask runTaskLaterAsynchronously(Runnable task, long delay) throws IllegalArgumentException;
+
+    /**
+     * Runs a repeating task asynchronously until it or this group is cancelled, as part of this group.
+     *
+     * @param task   The task to be run.
+     * @param delay  The number of ticks to wait before running the task for the first time.
+     * @param period The number of ticks to wait between runs.
+     * @return A ForgeTask object that contains the task ID number.
+     * @throws IllegalArgumentException if task is null.
+     * @see ForgeScheduler#runTaskTimerAsynchronously(ModContainer, Runnable, long, long)
+     */
+    ForgeTask runTaskTimerAsynchronously(Runnable task, long delay, long period) throws IllegalArgumentException;
+
+    /**
+     * Calls a method on the main thread as part of this group, the future is cancelled if the group is cancelled
+     * before the method starts.
+     *
+     * @param <T>  The callable's return type.
+     * @param task The task to be executed.
+     * @return A CompletableFuture completed by the main thread.
+     * @throws IllegalArgumentException if task is null.
+     * @see ForgeScheduler#supplySync(ModContainer, Callable)
+     */
+    <T> CompletableFuture<T> supplySync(Callable<T> task) throws IllegalArgumentException;
+
+    /**
+     * Ties this group to the lifetime of a tile entity: the group is cancelled once the tile is invalidated,
+     * when its chunk or world unloads or when it's broken.
+     * <p>
+     * Tasks of the group check the tile before they start, repeating tasks that are idle are cancelled within a
+     * second.
+     *
+     * @param tile The tile entity.
+     * @return This group.
+     * @throws IllegalArgumentException if tile is null.
+     */
+    ForgeTaskGroup bindTo(TileEntity tile) throws IllegalArgumentException;
+
+    /**
+     * Ties this group to the lifetime of a server world: the group is cancelled when the world unloads.
+     *
+     * @param world The world.
+     * @return This group.
+     * @throws IllegalArgumentException if world is null.
+     */
+    ForgeTaskGroup bindTo(World world) throws IllegalArgumentException;
+
+    /**
+     * Returns how many tasks of this group are scheduled or running, repeating tasks count until cancelled.
+     *
+     * @return The number of tasks left.
+     */
+    int getTaskCount();
+
+    /**
+     * Cancels every task of this group, and every task submitted to it from now on.
+     * Runs that already started are left to finish.
+     */
+    void cancel();
+
+    /**
+     * @return true if this group was cancelled, by {@link #cancel()} or because what it's bound to went away.
+     */
+    boolean isCancelled();
+
+    /**
+     * Returns a future completed once this group has no task left, that is when every task submitted so far
+     * finished and every repeating one was cancelled. A group with no task left returns a completed future.
+     * <p>
+     * The future is cancelled when the group is cancelled, and cancelling it does not cancel the group.
+     *
+     * @return A CompletableFuture completed when the group is done.
+     */
+    CompletableFuture<Void> whenDone();
+}
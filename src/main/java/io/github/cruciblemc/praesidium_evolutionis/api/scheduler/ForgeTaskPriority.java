@@ -0,0 +1,26 @@
+package io.github.cruciblemc.praesidium_evolutionis.api.scheduler;
+
+/**
+ * Order in which synchronous tasks that are ready on the same tick run.
+ * <p>
+ * Every ready task of a higher priority runs before any of a lower one, tasks of the same priority run in the order
+ * they became due. When the tick budget runs out the rest is carried over to the next tick, so low priority work is
+ * the first to slip, and keeps slipping for as long as higher priority work fills the budget.
+ */
+public enum ForgeTaskPriority {
+
+    /**
+     * Latency sensitive work, like answering a player's action.
+     */
+    HIGH,
+
+    /**
+     * What tasks run at when no priority is given.
+     */
+    NORMAL,
+
+    /**
+     * Bulk work that can wait a few ticks, like housekeeping and caches.
+     */
+    LOW
+}
@@ -0,0 +1,46 @@
+package io.github.cruciblemc.praesidium_evolutionis.api.scheduler;
+
+/**
+ * Execution timings aggregated by the scheduler profiler, either for a mod or for a task class.
+ * <p>
+ * Run times are kept in a histogram of power of two buckets: bucket {@code i} counts the runs that took
+ * between {@code 2^i} and {@code 2^(i+1)} nanoseconds.
+ */
+public interface ForgeTaskTimings {
+
+    /**
+     * Returns how many runs were recorded.
+     *
+     * @return The number of recorded runs.
+     */
+    long getCount();
+
+    /**
+     * Returns the total time of all recorded runs.
+     *
+     * @return The total run time in nanoseconds.
+     */
+    long getTotalNanos();
+
+    /**
+     * Returns the time of the slowest recorded run.
+     *
+     * @return The longest run time in nanoseconds.
+     */
+    long getMaxNanos();
+
+    /**
+     * Returns a copy of the run time histogram.
+     *
+     * @return The number of runs in each power of two bucket, indexed by the bucket exponent.
+     */
+    long[] getHistogram();
+
+    /**
+     * Estimates a percentile of the run time from the histogram.
+     *
+     * @param percentile The percentile to estimate, between 0 and 100.
+     * @return The upper bound of the bucket holding the percentile in nanoseconds, 0 if nothing was recorded.
+     */
+    long getPercentileNanos(double percentile);
+}
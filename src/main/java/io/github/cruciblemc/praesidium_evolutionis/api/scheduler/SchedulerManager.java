@@ -4,6 +4,7 @@ import cpw.mods.fml.common.FMLCommonHandler;
 import cpw.mods.fml.relauncher.Side;
 import io.github.cruciblemc.praesidium_evolutionis.scheduler.ForgeSchedulerImpl;
 import net.minecraft.client.Minecraft;
+import net.minecraftforge.common.MinecraftForge;
 import org.apiguardian.api.API;
 import org.jetbrains.annotations.Nullable;
 
@@ -77,6 +78,8 @@ public final class SchedulerManager {
     @API(status = API.Status.INTERNAL)
     public static void init() {
         FMLCommonHandler.instance().bus().register(SERVER_SCHEDULER);
+        // Chunk and world events, for chunk bound tasks
+        MinecraftForge.EVENT_BUS.register(SERVER_SCHEDULER);
         if (CLIENT_SCHEDULER != null)
             FMLCommonHandler.instance().bus().register(CLIENT_SCHEDULER);
     }
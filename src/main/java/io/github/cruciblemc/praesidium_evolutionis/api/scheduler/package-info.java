@@ -3,6 +3,8 @@
  * <p>
  * The scheduler API provides functionality for scheduling tasks to run at specific intervals or after a delay.
  * There are two schedulers available, each running at the start of a tick on its respective side (server or client).
+ * Synchronous tasks can also be moved to the end of the tick, or into the tick of a dimension, with a
+ * {@link io.github.cruciblemc.praesidium_evolutionis.api.scheduler.ForgeLane}.
  * <p>
  * To obtain a scheduler, use the {@link io.github.cruciblemc.praesidium_evolutionis.api.scheduler.SchedulerManager} class.
  * <p>
@@ -2,6 +2,7 @@ package io.github.cruciblemc.praesidium_evolutionis.config;
 
 import io.github.cruciblemc.omniconfig.api.annotation.AnnotationConfig;
 import io.github.cruciblemc.omniconfig.api.annotation.properties.ConfigBoolean;
+import io.github.cruciblemc.omniconfig.api.annotation.properties.ConfigInt;
 import io.github.cruciblemc.omniconfig.api.core.SidedConfigType;
 import io.github.cruciblemc.omniconfig.api.core.VersioningPolicy;
 import io.github.cruciblemc.praesidium_evolutionis.Tags;
@@ -27,4 +28,90 @@ public class CommonConfig {
                     Enables all sorts of debugging stuff
                     """)
     public static boolean debugging_enabled = false;
+
+    @ConfigInt(name = "Tick Budget", category = "Scheduler", min = 0, max = 1000000,
+            comment = """
+                    Maximum time in microseconds the scheduler may spend running sync tasks each tick, 0 means unlimited.
+                    The budget is shared by the start of the tick, the dimension ticks and the end of the tick.
+                    Ready tasks that don't fit in the budget are carried over to the next tick.
+                    """)
+    public static int scheduler_tickBudgetMicros = 0;
+
+    @ConfigInt(name = "Async Core Threads", category = "Scheduler", min = 1, max = 256,
+            comment = """
+                    Number of threads kept around to run async scheduler tasks.
+                    With work stealing enabled this is the pool parallelism instead.
+                    """)
+    public static int scheduler_asyncCoreThreads = 4;
+
+    @ConfigInt(name = "Async Max Threads", category = "Scheduler", min = 1, max = 1024,
+            comment = "Maximum number of async scheduler threads, extra threads are only started once the queue is full.")
+    public static int scheduler_asyncMaxThreads = 16;
+
+    @ConfigInt(name = "Async Queue Capacity", category = "Scheduler", min = 0, max = 1000000,
+            comment = """
+                    Number of async task runs that may wait for a free thread.
+                    Runs that don't fit in the queue while every thread is busy wait in the queue of their mod until a thread frees up.
+                    """)
+    public static int scheduler_asyncQueueCapacity = 1024;
+
+    @ConfigBoolean(name = "Async Work Stealing", category = "Scheduler",
+            comment = "Run async scheduler tasks on a work-stealing ForkJoinPool, better suited for CPU-bound async work.")
+    public static boolean scheduler_asyncWorkStealing = false;
+
+    @ConfigInt(name = "Mod Async Concurrency", category = "Scheduler", min = 0, max = 1024,
+            comment = """
+                    Maximum number of async tasks of a single mod running at once, 0 means no limit.
+                    Async runs over the limit wait in the mod's own queue, so one mod can't take every scheduler thread.
+                    """)
+    public static int scheduler_modAsyncConcurrency = 8;
+
+    @ConfigInt(name = "Mod Async Queue Capacity", category = "Scheduler", min = 1, max = 1000000,
+            comment = "Number of async runs of a single mod that may wait for a slot, runs beyond it are rejected and logged.")
+    public static int scheduler_modAsyncQueueCapacity = 4096;
+
+    @ConfigInt(name = "Mod Async Rate", category = "Scheduler", min = 0, max = 1000000,
+            comment = "Number of async runs a single mod may start per second, 0 means no limit. Runs over the rate wait in the mod's queue.")
+    public static int scheduler_modAsyncRate = 0;
+
+    @ConfigInt(name = "Mod Async Burst", category = "Scheduler", min = 1, max = 1000000,
+            comment = "Number of async runs a single mod may start at once after being idle, when a rate is set.")
+    public static int scheduler_modAsyncBurst = 100;
+
+    @ConfigInt(name = "Chunk Max Parked Tasks", category = "Scheduler", min = 0, max = 10000000,
+            comment = """
+                    Number of chunk bound tasks that may wait for their unloaded chunk to load again, across every world.
+                    Tasks that should wait once this many do are dropped and logged, so chunks that never load again can't pile them up.
+                    """)
+    public static int scheduler_chunkMaxParkedTasks = 65536;
+
+    @ConfigBoolean(name = "Stagger Repeating Tasks", category = "Scheduler",
+            comment = """
+                    Delay the first run of new repeating tasks by up to one period, to the tick of the period the fewest tasks fire on.
+                    Spreads tasks scheduled together, like the machines of a chunk that just loaded, instead of running them all on the same tick.
+                    """)
+    public static boolean scheduler_staggerRepeatingTasks = false;
+
+    @ConfigInt(name = "Stagger Max Period", category = "Scheduler", min = 2, max = 72000,
+            comment = "Longest period in ticks of the repeating tasks that are staggered and counted per tick of their period.")
+    public static int scheduler_staggerMaxPeriod = 1200;
+
+    @ConfigBoolean(name = "Profiling", category = "Scheduler",
+            comment = "Record run times of every scheduled task, aggregated per mod and per task class.")
+    public static boolean scheduler_profiling = false;
+
+    @ConfigBoolean(name = "Watchdog", category = "Scheduler",
+            comment = """
+                    Watch sync tasks from a separate thread and sample the main thread stack while one runs for too long.
+                    The owning mod, task id and a folded stack profile are logged once the task returns, or every 10 seconds while it hangs.
+                    """)
+    public static boolean scheduler_watchdog = false;
+
+    @ConfigInt(name = "Watchdog Threshold", category = "Scheduler", min = 1, max = 600000,
+            comment = "Time in milliseconds a sync task may run before the watchdog starts sampling it.")
+    public static int scheduler_watchdogThresholdMillis = 50;
+
+    @ConfigInt(name = "Watchdog Sample Interval", category = "Scheduler", min = 1, max = 10000,
+            comment = "Time in milliseconds between two stack samples of a long running sync task.")
+    public static int scheduler_watchdogSampleMillis = 5;
 }
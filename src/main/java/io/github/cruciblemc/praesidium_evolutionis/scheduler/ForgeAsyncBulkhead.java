@@ -0,0 +1,169 @@
+package io.github.cruciblemc.praesidium_evolutionis.scheduler;
+
+import io.github.cruciblemc.praesidium_evolutionis.api.scheduler.ForgeAsyncStats;
+import org.apiguardian.api.API;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Admission control for the async runs of one mod in front of the shared pool.
+ * <p>
+ * Runs are queued per mod and handed to the pool while the mod has less than its concurrency limit in flight and
+ * a token left in its bucket. A slot is taken with a compare-and-set on the running count, so any thread can drain:
+ * the heartbeat after dispatching, a worker when a run finishes, and the heartbeat again every tick while any
+ * bulkhead has runs queued, so runs held back by the token bucket start once it refilled.
+ * <p>
+ * Runs are only rejected when they are submitted to a full queue. A run the shared pool refuses was already
+ * admitted, it goes back to the head of the queue and its slot and token are given back.
+ */
+@API(status = API.Status.INTERNAL)
+final class ForgeAsyncBulkhead implements ForgeAsyncStats {
+
+    private final Executor executor;
+    private final Consumer<ForgeTaskImpl> rejecter;
+    /**
+     * Runs queued in every bulkhead of the scheduler, shared between them
+     */
+    private final AtomicInteger allQueued;
+    private final int concurrency;
+    private final int capacity;
+    private final double permitsPerNano;
+    private final double burst;
+    private final ConcurrentLinkedDeque<ForgeTaskImpl> queue = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger running = new AtomicInteger();
+    private final LongAdder dispatched = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private double tokens;
+    private long refilled = System.nanoTime();
+
+    /**
+     * @param concurrency runs allowed in flight at once, 0 for no limit.
+     * @param capacity    runs allowed to wait in the queue.
+     * @param rate        runs allowed to start per second, 0 for no limit.
+     * @param burst       runs allowed to start at once after an idle period.
+     */
+    ForgeAsyncBulkhead(final Executor executor, final Consumer<ForgeTaskImpl> rejecter, final AtomicInteger allQueued,
+                       final int concurrency, final int capacity, final int rate, final int burst) {
+        this.executor = executor;
+        this.rejecter = rejecter;
+        this.allQueued = allQueued;
+        this.concurrency = concurrency > 0 ? concurrency : Integer.MAX_VALUE;
+        this.capacity = Math.max(1, capacity);
+        this.permitsPerNano = rate > 0 ? rate / (double) TimeUnit.SECONDS.toNanos(1) : 0;
+        this.burst = Math.max(1, burst);
+        this.tokens = this.burst;
+    }
+
+    void submit(final ForgeTaskImpl task) {
+        if (queued.incrementAndGet() > capacity) {
+            queued.decrementAndGet();
+            reject(task);
+            return;
+        }
+        queue.add(task);
+        allQueued.incrementAndGet();
+        drain();
+    }
+
+    /**
+     * Frees the slot of a run that finished, and lets the next one in.
+     */
+    void finished() {
+        running.decrementAndGet();
+        drain();
+    }
+
+    void drain() {
+        while (!queue.isEmpty()) {
+            final int current = running.get();
+            if (current >= concurrency) {
+                return;
+            }
+            if (!running.compareAndSet(current, current + 1)) {
+                continue;
+            }
+            if (!acquire()) {
+                running.decrementAndGet();
+                return;
+            }
+            final ForgeTaskImpl task = queue.poll();
+            if (task == null) {
+                // Another thread took the last one
+                running.decrementAndGet();
+                refund();
+                return;
+            }
+            queued.decrementAndGet();
+            allQueued.decrementAndGet();
+            try {
+                executor.execute(task);
+            } catch (final RejectedExecutionException e) {
+                // The shared pool is saturated, the run and the rest of the queue wait for the next drain
+                queue.offerFirst(task);
+                queued.incrementAndGet();
+                allQueued.incrementAndGet();
+                running.decrementAndGet();
+                refund();
+                return;
+            }
+            dispatched.increment();
+        }
+    }
+
+    private void reject(final ForgeTaskImpl task) {
+        rejected.increment();
+        rejecter.accept(task);
+    }
+
+    private synchronized boolean acquire() {
+        if (permitsPerNano == 0) {
+            return true;
+        }
+        final long now = System.nanoTime();
+        tokens = Math.min(burst, tokens + (now - refilled) * permitsPerNano);
+        refilled = now;
+        if (tokens < 1) {
+            return false;
+        }
+        tokens--;
+        return true;
+    }
+
+    private synchronized void refund() {
+        if (permitsPerNano != 0) {
+            tokens = Math.min(burst, tokens + 1);
+        }
+    }
+
+    @Override
+    public int getQueued() {
+        return queued.get();
+    }
+
+    @Override
+    public int getRunning() {
+        return running.get();
+    }
+
+    @Override
+    public long getDispatched() {
+        return dispatched.sum();
+    }
+
+    @Override
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "ForgeAsyncStats{queued=" + getQueued() + ", running=" + getRunning() + ", dispatched=" + getDispatched() + ", rejected=" + getRejected() + '}';
+    }
+}
@@ -7,17 +7,16 @@ import org.apiguardian.api.API;
 
 import java.util.Iterator;
 import java.util.LinkedList;
-import java.util.Map;
 
 @API(status = API.Status.INTERNAL)
 class ForgeAsyncTaskImpl extends ForgeTaskImpl {
 
     private final LinkedList<ForgeWorker> workers = new LinkedList<>();
-    private final Map<Integer, ForgeTaskImpl> runners;
+    private final ForgeSchedulerImpl scheduler;
 
-    ForgeAsyncTaskImpl(final Map<Integer, ForgeTaskImpl> runners, ModContainer owner, final Runnable task, final int id, final long delay, Side side) {
+    ForgeAsyncTaskImpl(final ForgeSchedulerImpl scheduler, ModContainer owner, final Runnable task, final int id, final long delay, Side side) {
         super(task, owner, id, delay, side);
-        this.runners = runners;
+        this.scheduler = scheduler;
     }
 
     @Override
@@ -27,6 +26,14 @@ class ForgeAsyncTaskImpl extends ForgeTaskImpl {
 
     @Override
     public void run() {
+        try {
+            runAsWorker();
+        } finally {
+            scheduler.finished(this);
+        }
+    }
+
+    private void runAsWorker() {
         final Thread thread = Thread.currentThread();
         synchronized (workers) {
             if (getPeriod() == -2) {
@@ -50,6 +57,7 @@ class ForgeAsyncTaskImpl extends ForgeTaskImpl {
                     });
         }
         Throwable thrown = null;
+        final long started = System.nanoTime();
         try {
             super.run();
         } catch (final Throwable t) {
@@ -61,6 +69,7 @@ class ForgeAsyncTaskImpl extends ForgeTaskImpl {
                             getTaskId()),
                     thrown);
         } finally {
+            scheduler.ran(this, started);
             // Cleanup is important for any async task, otherwise ghost tasks are everywhere
             synchronized (workers) {
                 try {
@@ -87,7 +96,7 @@ class ForgeAsyncTaskImpl extends ForgeTaskImpl {
                     if (getPeriod() < 0 && workers.isEmpty()) {
                         // At this spot, we know we are the final async task being executed!
                         // Because we have the lock, nothing else is running or will run because delay < 0
-                        runners.remove(getTaskId());
+                        scheduler.retire(this);
                     }
                 }
             }
@@ -103,7 +112,7 @@ class ForgeAsyncTaskImpl extends ForgeTaskImpl {
             // Synchronizing here prevents race condition for a completing task
             setPeriod(-2L);
             if (workers.isEmpty()) {
-                runners.remove(getTaskId());
+                scheduler.retire(this);
             }
         }
         return true;
@@ -0,0 +1,257 @@
+package io.github.cruciblemc.praesidium_evolutionis.scheduler;
+
+import io.github.cruciblemc.praesidium_evolutionis.api.scheduler.ForgeChunkPolicy;
+import net.minecraft.world.World;
+import org.apiguardian.api.API;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Groups the tasks bound to a chunk, see {@link ForgeChunkTask}.
+ * <p>
+ * Chunk tasks wait in the timing wheel like any other task. Once expired they are handed over here and held in the
+ * ready list of their chunk's bucket, and buckets are run one after the other so tasks touching the same chunk run
+ * back to back. Whether a chunk is loaded is only ever asked to the chunk provider, which never loads it.
+ * <p>
+ * A task whose chunk is not loaded when it expires, or that is still waiting when the chunk unloads, follows its
+ * {@link ForgeChunkPolicy}: dropped tasks are handed to the dropper, parked ones wait in the parked list of their
+ * bucket until the chunk loads again. Chunks that never load again would keep their parked tasks until the world
+ * unloads, so once the parked lists hold the maximum, tasks that should be parked are handed to the overflow
+ * handler instead. Not thread safe, only touched by the thread running the heartbeat.
+ */
+@API(status = API.Status.INTERNAL)
+final class ForgeChunkQueue {
+
+    private final Map<World, Map<Long, Bucket>> buckets = new HashMap<>();
+    private final ArrayDeque<Bucket> ready = new ArrayDeque<>();
+    private final Consumer<ForgeTaskImpl> dropper;
+    private final Consumer<ForgeTaskImpl> overflow;
+    private final int maxParked;
+    private int readyCount;
+    private int parkedCount;
+
+    /**
+     * @param maxParked tasks allowed to wait in every parked list at once.
+     */
+    ForgeChunkQueue(final Consumer<ForgeTaskImpl> dropper, final Consumer<ForgeTaskImpl> overflow, final int maxParked) {
+        this.dropper = dropper;
+        this.overflow = overflow;
+        this.maxParked = Math.max(0, maxParked);
+    }
+
+    private static long key(final int chunkX, final int chunkZ) {
+        return (chunkX & 0xFFFFFFFFL) | (chunkZ & 0xFFFFFFFFL) << 32;
+    }
+
+    /**
+     * Counts a newly submitted task in the bucket of its chunk.
+     */
+    void track(final ForgeChunkTask task) {
+        final Bucket bucket = buckets.computeIfAbsent(task.getWorld(), k -> new HashMap<>())
+                .computeIfAbsent(key(task.getChunkX(), task.getChunkZ()), k -> new Bucket(task.getWorld(), task.getChunkX(), task.getChunkZ()));
+        bucket.size++;
+        task.setBucket(bucket);
+        task.setGeneration(bucket.unloads);
+    }
+
+    /**
+     * Takes over a task that just expired in the wheel.
+     */
+    void expired(final ForgeChunkTask task) {
+        final Bucket bucket = task.getBucket();
+        if (bucket == null || bucket.dead
+                || (task.getPolicy() == ForgeChunkPolicy.DROP && task.getGeneration() != bucket.unloads)) {
+            dropper.accept(task);
+        } else if (!task.getWorld().getChunkProvider().chunkExists(bucket.chunkX, bucket.chunkZ)) {
+            unavailable(bucket, task);
+        } else {
+            hold(bucket, bucket.ready, task);
+        }
+    }
+
+    /**
+     * @return the next task to run, tasks of the same chunk coming one after the other, or null when none is ready.
+     */
+    ForgeChunkTask poll() {
+        Bucket bucket;
+        while ((bucket = ready.peekFirst()) != null) {
+            final ForgeTaskImpl task = bucket.ready.getWheelNext();
+            if (task != bucket.ready) {
+                final ForgeChunkTask chunkTask = (ForgeChunkTask) task;
+                remove(chunkTask);
+                return chunkTask;
+            }
+            ready.pollFirst();
+            bucket.queued = false;
+        }
+        return null;
+    }
+
+    int countReady() {
+        return readyCount;
+    }
+
+    int countParked() {
+        return parkedCount;
+    }
+
+    /**
+     * Takes a task out of the ready or parked list it is held in.
+     *
+     * @return true if the task was held.
+     */
+    boolean remove(final ForgeChunkTask task) {
+        final ForgeTaskImpl list = task.getHeldIn();
+        if (list == null) {
+            return false;
+        }
+        if (list == task.getBucket().ready) {
+            readyCount--;
+        } else {
+            parkedCount--;
+        }
+        ForgeTimingWheel.unlink(task);
+        task.setHeldIn(null);
+        return true;
+    }
+
+    /**
+     * Forgets a task that will never run again, its bucket goes away with its last task.
+     */
+    void release(final ForgeChunkTask task) {
+        final Bucket bucket = task.getBucket();
+        if (bucket == null) {
+            return;
+        }
+        remove(task);
+        task.setBucket(null);
+        if (--bucket.size == 0 && !bucket.dead) {
+            final Map<Long, Bucket> world = buckets.get(bucket.world);
+            world.remove(key(bucket.chunkX, bucket.chunkZ));
+            if (world.isEmpty()) {
+                buckets.remove(bucket.world);
+            }
+        }
+    }
+
+    void loaded(final World world, final int chunkX, final int chunkZ) {
+        final Bucket bucket = find(world, chunkX, chunkZ);
+        if (bucket == null) {
+            return;
+        }
+        ForgeTaskImpl task;
+        while ((task = bucket.parked.getWheelNext()) != bucket.parked) {
+            final ForgeChunkTask chunkTask = (ForgeChunkTask) task;
+            remove(chunkTask);
+            hold(bucket, bucket.ready, chunkTask);
+        }
+    }
+
+    void unloaded(final World world, final int chunkX, final int chunkZ) {
+        final Bucket bucket = find(world, chunkX, chunkZ);
+        if (bucket == null) {
+            return;
+        }
+        bucket.unloads++;
+        // Ready tasks that didn't get to run are treated as if they expired now
+        ForgeTaskImpl task;
+        while ((task = bucket.ready.getWheelNext()) != bucket.ready) {
+            final ForgeChunkTask chunkTask = (ForgeChunkTask) task;
+            remove(chunkTask);
+            unavailable(bucket, chunkTask);
+        }
+    }
+
+    /**
+     * Drops every task of a world, tasks still in the wheel are dropped as they expire.
+     */
+    void unloaded(final World world) {
+        final Map<Long, Bucket> removed = buckets.remove(world);
+        if (removed == null) {
+            return;
+        }
+        for (Bucket bucket : removed.values()) {
+            bucket.dead = true;
+            drop(bucket.ready);
+            drop(bucket.parked);
+        }
+    }
+
+    /**
+     * Forgets every bucket, the tasks are expected to be released already.
+     */
+    void reset() {
+        buckets.clear();
+        ready.clear();
+        readyCount = 0;
+        parkedCount = 0;
+    }
+
+    private Bucket find(final World world, final int chunkX, final int chunkZ) {
+        if (buckets.isEmpty()) {
+            return null;
+        }
+        final Map<Long, Bucket> chunks = buckets.get(world);
+        return chunks == null ? null : chunks.get(key(chunkX, chunkZ));
+    }
+
+    private void unavailable(final Bucket bucket, final ForgeChunkTask task) {
+        if (task.getPolicy() != ForgeChunkPolicy.PARK) {
+            dropper.accept(task);
+        } else if (parkedCount >= maxParked) {
+            overflow.accept(task);
+        } else {
+            hold(bucket, bucket.parked, task);
+        }
+    }
+
+    private void hold(final Bucket bucket, final ForgeTaskImpl list, final ForgeChunkTask task) {
+        ForgeTimingWheel.link(list, task);
+        task.setHeldIn(list);
+        if (list == bucket.parked) {
+            parkedCount++;
+            return;
+        }
+        readyCount++;
+        if (!bucket.queued) {
+            bucket.queued = true;
+            ready.addLast(bucket);
+        }
+    }
+
+    private void drop(final ForgeTaskImpl list) {
+        ForgeTaskImpl task;
+        while ((task = list.getWheelNext()) != list) {
+            final ForgeChunkTask chunkTask = (ForgeChunkTask) task;
+            remove(chunkTask);
+            dropper.accept(chunkTask);
+        }
+    }
+
+    static final class Bucket {
+        private final World world;
+        private final int chunkX;
+        private final int chunkZ;
+        private final ForgeTaskImpl ready = ForgeTimingWheel.sentinel();
+        private final ForgeTaskImpl parked = ForgeTimingWheel.sentinel();
+        /**
+         * Tasks counted in this bucket, wherever they are.
+         */
+        private int size;
+        private int unloads;
+        private boolean queued;
+        /**
+         * Set once the world unloaded, the bucket is no longer reachable and its remaining tasks are dropped.
+         */
+        private boolean dead;
+
+        private Bucket(final World world, final int chunkX, final int chunkZ) {
+            this.world = world;
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package io.github.cruciblemc.praesidium_evolutionis.scheduler;
+
+import io.github.cruciblemc.praesidium_evolutionis.PraesidiumEvolutionis;
+import io.github.cruciblemc.praesidium_evolutionis.api.scheduler.ForgeChunkSnapshot;
+import io.github.cruciblemc.praesidium_evolutionis.api.tracking.Identification;
+import io.github.cruciblemc.praesidium_evolutionis.api.tracking.TileTracking;
+import net.minecraft.block.Block;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.world.ChunkPosition;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.NibbleArray;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+import org.apiguardian.api.API;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Chunk snapshot holding copies of the arrays of each section, see
+ * {@link ForgeSchedulerImpl#snapshotChunks(cpw.mods.fml.common.ModContainer, net.minecraft.world.World, java.util.Collection, io.github.cruciblemc.praesidium_evolutionis.api.scheduler.ForgeSnapshotOption...)}.
+ * <p>
+ * Empty sections are not copied, blocks are read from the arrays the same way {@link ExtendedBlockStorage} does.
+ */
+@API(status = API.Status.INTERNAL)
+final class ForgeChunkSnapshotImpl implements ForgeChunkSnapshot {
+
+    private static final int SECTIONS = 16;
+
+    private final int dimension;
+    private final int chunkX;
+    private final int chunkZ;
+    private final long captureTick;
+    /**
+     * Per section, null if the section is empty
+     */
+    private final byte[][] blocks = new byte[SECTIONS][];
+    /**
+     * Per section, null if no block id of the section is above 255
+     */
+    private final byte[][] extended = new byte[SECTIONS][];
+    private final byte[][] metadata = new byte[SECTIONS][];
+    private final Map<ChunkPosition, NBTTagCompound> tileData;
+    private final Map<ChunkPosition, Identification> tileOwners;
+    private final Set<ChunkPosition> tilePositions;
+
+    /**
+     * Copies a loaded chunk, must be called on the main thread.
+     */
+    ForgeChunkSnapshotImpl(final Chunk chunk, final long captureTick, final boolean withData, final boolean withOwners) {
+        this.dimension = chunk.worldObj.provider.dimensionId;
+        this.chunkX = chunk.xPosition;
+        this.chunkZ = chunk.zPosition;
+        this.captureTick = captureTick;
+        final ExtendedBlockStorage[] storage = chunk.getBlockStorageArray();
+        for (int i = 0; i < SECTIONS && i < storage.length; i++) {
+            final ExtendedBlockStorage section = storage[i];
+            if (section == null || section.isEmpty()) {
+                continue;
+            }
+            blocks[i] = section.getBlockLSBArray().clone();
+            final NibbleArray msb = section.getBlockMSBArray();
+            extended[i] = msb != null ? msb.data.clone() : null;
+            metadata[i] = section.getMetadataArray().data.clone();
+        }
+        if (!withData && !withOwners) {
+            tileData = Collections.emptyMap();
+            tileOwners = Collections.emptyMap();
+            tilePositions = Collections.emptySet();
+            return;
+        }
+        final Map<ChunkPosition, NBTTagCompound> data = withData ? new HashMap<>() : Collections.emptyMap();
+        final Map<ChunkPosition, Identification> owners = withOwners ? new HashMap<>() : Collections.emptyMap();
+        final Map<ChunkPosition, TileEntity> tiles = new HashMap<>();
+        for (Object entry : chunk.chunkTileEntityMap.entrySet()) {
+            final Map.Entry<?, ?> tile = (Map.Entry<?, ?>) entry;
+            if (!((TileEntity) tile.getValue()).isInvalid()) {
+                tiles.put((ChunkPosition) tile.getKey(), (TileEntity) tile.getValue());
+            }
+        }
+        for (Map.Entry<ChunkPosition, TileEntity> tile : tiles.entrySet()) {
+            if (withData) {
+                final NBTTagCompound tag = new NBTTagCompound();
+                try {
+                    tile.getValue().writeToNBT(tag);
+                    data.put(tile.getKey(), tag);
+                } catch (final RuntimeException e) {
+                    PraesidiumEvolutionis.logger.warn(
+                            String.format("Could not save %s at %s, %s, %s for a chunk snapshot",
+                                    tile.getValue().getClass().getName(),
+                                    tile.getValue().xCoord, tile.getValue().yCoord, tile.getValue().zCoord),
+                            e);
+                }
+            }
+            if (withOwners) {
+                owners.put(tile.getKey(), TileTracking.getOwner(tile.getValue()));
+            }
+        }
+        this.tileData = data;
+        this.tileOwners = owners;
+        this.tilePositions = Collections.unmodifiableSet(tiles.keySet());
+    }
+
+    @Override
+    public int getDimension() {
+        return dimension;
+    }
+
+    @Override
+    public int getChunkX() {
+        return chunkX;
+    }
+
+    @Override
+    public int getChunkZ() {
+        return chunkZ;
+    }
+
+    @Override
+    public long getCaptureTick() {
+        return captureTick;
+    }
+
+    @Override
+    public boolean isSectionEmpty(final int section) {
+        if (section < 0 || section >= SECTIONS) {
+            throw new IndexOutOfBoundsException("Section " + section + " is outside the chunk");
+        }
+        return blocks[section] == null;
+    }
+
+    @Override
+    public int getBlockId(final int x, final int y, final int z) {
+        final int section = section(x, y, z);
+        final byte[] lsb = blocks[section];
+        if (lsb == null) {
+            return 0;
+        }
+        final int index = index(x, y, z);
+        final byte[] msb = extended[section];
+        return lsb[index] & 255 | (msb != null ? nibble(msb, index) << 8 : 0);
+    }
+
+    @Override
+    public Block getBlock(final int x, final int y, final int z) {
+        return Block.getBlockById(getBlockId(x, y, z));
+    }
+
+    @Override
+    public int getBlockMetadata(final int x, final int y, final int z) {
+        final int section = section(x, y, z);
+        final byte[] meta = metadata[section];
+        return meta != null ? nibble(meta, index(x, y, z)) : 0;
+    }
+
+    @Override
+    public Set<ChunkPosition> getTilePositions() {
+        return tilePositions;
+    }
+
+    @Override
+    public NBTTagCompound getTileData(final int x, final int y, final int z) {
+        final NBTTagCompound tag = tileData.get(new ChunkPosition(x, y, z));
+        // The snapshot keeps its own copy, callers are free to change theirs
+        return tag != null ? (NBTTagCompound) tag.copy() : null;
+    }
+
+    @Override
+    public Identification getTileOwner(final int x, final int y, final int z) {
+        return tileOwners.get(new ChunkPosition(x, y, z));
+    }
+
+    private static int section(final int x, final int y, final int z) {
+        if ((x | z) >>> 4 != 0 || y >>> 8 != 0) {
+            throw new IndexOutOfBoundsException("Block at " + x + ", " + y + ", " + z + " is outside the chunk");
+        }
+        return y >> 4;
+    }
+
+    private static int index(final int x, final int y, final int z) {
+        return (y & 15) << 8 | z << 4 | x;
+    }
+
+    private static int nibble(final byte[] data, final int index) {
+        final int value = data[index >> 1];
+        return (index & 1) == 0 ? value & 15 : value >> 4 & 15;
+    }
+
+    @Override
+    public String toString() {
+        return "ForgeChunkSnapshot{dim=" + dimension + ", x=" + chunkX + ", z=" + chunkZ + ", tick=" + captureTick + "}";
+    }
+}
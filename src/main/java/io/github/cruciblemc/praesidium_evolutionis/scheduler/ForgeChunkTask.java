@@ -0,0 +1,80 @@
+package io.github.cruciblemc.praesidium_evolutionis.scheduler;
+
+import cpw.mods.fml.common.ModContainer;
+import cpw.mods.fml.relauncher.Side;
+import io.github.cruciblemc.praesidium_evolutionis.api.scheduler.ForgeChunkPolicy;
+import net.minecraft.world.World;
+import org.apiguardian.api.API;
+
+/**
+ * Sync task bound to a chunk, see {@link ForgeChunkQueue}.
+ */
+@API(status = API.Status.INTERNAL)
+class ForgeChunkTask extends ForgeTaskImpl {
+
+    private final World world;
+    private final int chunkX;
+    private final int chunkZ;
+    private final ForgeChunkPolicy policy;
+    /**
+     * Bucket the task is counted in, null until it's tracked and again once it's released.
+     */
+    private ForgeChunkQueue.Bucket bucket;
+    /**
+     * Unloads of the bucket already seen by the task.
+     */
+    private int generation;
+    /**
+     * Ready or parked list of the bucket the task sits in instead of the wheel, null otherwise.
+     */
+    private ForgeTaskImpl heldIn;
+
+    ForgeChunkTask(final Runnable task, final ModContainer owner, final int id, final World world, final int chunkX, final int chunkZ,
+                   final ForgeChunkPolicy policy, final Side side) {
+        super(task, owner, id, -1L, side);
+        this.world = world;
+        this.chunkX = chunkX;
+        this.chunkZ = chunkZ;
+        this.policy = policy;
+    }
+
+    World getWorld() {
+        return world;
+    }
+
+    int getChunkX() {
+        return chunkX;
+    }
+
+    int getChunkZ() {
+        return chunkZ;
+    }
+
+    ForgeChunkPolicy getPolicy() {
+        return policy;
+    }
+
+    ForgeChunkQueue.Bucket getBucket() {
+        return bucket;
+    }
+
+    void setBucket(ForgeChunkQueue.Bucket bucket) {
+        this.bucket = bucket;
+    }
+
+    int getGeneration() {
+        return generation;
+    }
+
+    void setGeneration(int generation) {
+        this.generation = generation;
+    }
+
+    ForgeTaskImpl getHeldIn() {
+        return heldIn;
+    }
+
+    void setHeldIn(ForgeTaskImpl heldIn) {
+        this.heldIn = heldIn;
+    }
+}
@@ -0,0 +1,80 @@
+package io.github.cruciblemc.praesidium_evolutionis.scheduler;
+
+import cpw.mods.fml.common.ModContainer;
+import cpw.mods.fml.relauncher.Side;
+import org.apiguardian.api.API;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Sync task backing a {@link CompletableFuture}, the future follows the task period states:
+ * -1 pending, -2 cancelled, -3 running and -4 done.
+ */
+@API(status = API.Status.INTERNAL)
+class ForgeCompletableTaskImpl<T> extends ForgeTaskImpl {
+
+    private final Callable<T> callable;
+    private final Class<?> taskClass;
+    private final TaskFuture future = new TaskFuture();
+
+    ForgeCompletableTaskImpl(final Callable<T> callable, ModContainer owner, final int id, Side side) {
+        this(callable, callable.getClass(), owner, id, side);
+    }
+
+    /**
+     * @param taskClass the class timings are reported under, when the callable only wraps the mod's code.
+     */
+    ForgeCompletableTaskImpl(final Callable<T> callable, final Class<?> taskClass, ModContainer owner, final int id, Side side) {
+        super(null, owner, id, -1L, side);
+        this.callable = callable;
+        this.taskClass = taskClass;
+    }
+
+    CompletableFuture<T> getFuture() {
+        return future;
+    }
+
+    @Override
+    public void run() {
+        if (!compareAndSetPeriod(-1L, -3L)) {
+            return;
+        }
+        try {
+            future.complete(callable.call());
+        } catch (final Throwable t) {
+            future.completeExceptionally(t);
+        } finally {
+            setPeriod(-4L);
+        }
+    }
+
+    @Override
+    public Class<?> getTaskClass() {
+        return taskClass;
+    }
+
+    boolean cancel0() {
+        if (!compareAndSetPeriod(-1L, -2L)) {
+            return false;
+        }
+        future.cancelled();
+        return true;
+    }
+
+    private class TaskFuture extends CompletableFuture<T> {
+
+        @Override
+        public boolean cancel(final boolean mayInterruptIfRunning) {
+            if (getPeriod() == -1L) {
+                // Goes through the scheduler so the task is unindexed too
+                ForgeCompletableTaskImpl.this.cancel();
+            }
+            return isCancelled();
+        }
+
+        void cancelled() {
+            super.cancel(false);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package io.github.cruciblemc.praesidium_evolutionis.scheduler;
+
+import org.apiguardian.api.API;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fixed size ring buffer of the most recent scheduler events, kept in primitive slots so recording never allocates.
+ * <p>
+ * Events are async dispatches, sync runs and async runs, the latter two with their duration. Task classes are
+ * interned to an id the first time they are seen, only their name is kept so the log does not hold mod classes. Async workers record their runs concurrently with the main thread,
+ * so a slot being overwritten while {@link #debugTo(StringBuilder)} renders it may come out mixed; this is a
+ * debugging aid, not an audit log.
+ */
+@API(status = API.Status.INTERNAL)
+final class ForgeDispatchLog {
+
+    static final byte ASYNC_DISPATCH = 0;
+    static final byte SYNC_RUN = 1;
+    static final byte ASYNC_RUN = 2;
+
+    private static final int CAPACITY = 512;
+    private static final int MASK = CAPACITY - 1;
+
+    private final AtomicLong cursor = new AtomicLong();
+    private final long[] ticks = new long[CAPACITY];
+    private final int[] taskIds = new int[CAPACITY];
+    private final int[] classIds = new int[CAPACITY];
+    private final long[] durations = new long[CAPACITY];
+    private final byte[] kinds = new byte[CAPACITY];
+
+    private final List<String> classNames = new ArrayList<>();
+    private final ClassValue<Integer> classIdsByClass = new ClassValue<Integer>() {
+        @Override
+        protected Integer computeValue(final Class<?> type) {
+            synchronized (classNames) {
+                classNames.add(type.getName());
+                return classNames.size() - 1;
+            }
+        }
+    };
+
+    void dispatched(final long tick, final ForgeTaskImpl task) {
+        record(tick, task, ASYNC_DISPATCH, -1L);
+    }
+
+    void ran(final long tick, final ForgeTaskImpl task, final long nanos) {
+        record(tick, task, task.isSync() ? SYNC_RUN : ASYNC_RUN, nanos);
+    }
+
+    private void record(final long tick, final ForgeTaskImpl task, final byte kind, final long nanos) {
+        final int slot = (int) (cursor.getAndIncrement() & MASK);
+        ticks[slot] = tick;
+        taskIds[slot] = task.getTaskId();
+        classIds[slot] = classIdsByClass.get(task.getTaskClass());
+        durations[slot] = nanos;
+        kinds[slot] = kind;
+    }
+
+    /**
+     * @return the tick of the oldest event still in the buffer, or the given tick when empty.
+     */
+    long oldestTick(final long fallback) {
+        final long end = cursor.get();
+        if (end == 0) {
+            return fallback;
+        }
+        return ticks[(int) (Math.max(0L, end - CAPACITY) & MASK)];
+    }
+
+    void debugTo(final StringBuilder string) {
+        final long end = cursor.get();
+        for (long i = Math.max(0L, end - CAPACITY); i < end; i++) {
+            final int slot = (int) (i & MASK);
+            final int classId = classIds[slot];
+            final String className;
+            synchronized (classNames) {
+                // The slot may be claimed but not written yet
+                className = classId < classNames.size() ? classNames.get(classId) : "?";
+            }
+            string.append(':').append(className).append('#').append(taskIds[slot]).append('@').append(ticks[slot]);
+            switch (kinds[slot]) {
+                case ASYNC_DISPATCH -> string.append(" dispatched");
+                case SYNC_RUN -> string.append(" sync ").append(TimeUnit.NANOSECONDS.toMicros(durations[slot])).append("us");
+                case ASYNC_RUN -> string.append(" async ").append(TimeUnit.NANOSECONDS.toMicros(durations[slot])).append("us");
+            }
+            string.append(',');
+        }
+    }
+}
@@ -5,25 +5,39 @@ import cpw.mods.fml.relauncher.Side;
 import org.apiguardian.api.API;
 
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
 
+/**
+ * Future for {@link ForgeSchedulerImpl#callSyncMethod(ModContainer, Callable)}.
+ * <p>
+ * State lives in the task period (-1 pending, -2 cancelled, -3 running, -4 done) and only moves through
+ * compare-and-set transitions. Threads waiting on the result park on a lock-free stack and are unparked one by one
+ * when the future settles, no monitor is involved. A waiter that times out or is interrupted unlinks itself, so
+ * polling a long running future with a timeout doesn't grow the stack. Calling {@link #get()} on the thread that runs the scheduler
+ * runs the callable right away instead of waiting on a tick that can never come.
+ */
 @API(status = API.Status.INTERNAL)
 class ForgeFutureImpl<T> extends ForgeTaskImpl implements Future<T> {
 
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<ForgeFutureImpl, WaitNode> WAITERS =
+            AtomicReferenceFieldUpdater.newUpdater(ForgeFutureImpl.class, WaitNode.class, "waiters");
+
+    private final ForgeSchedulerImpl scheduler;
     private final Callable<T> callable;
     private T value;
     private Exception exception = null;
+    private volatile WaitNode waiters;
 
-    ForgeFutureImpl(final Callable<T> callable, ModContainer owner, final int id, Side side) {
+    ForgeFutureImpl(final ForgeSchedulerImpl scheduler, final Callable<T> callable, ModContainer owner, final int id, Side side) {
         super(null, owner, id, -1L, side);
+        this.scheduler = scheduler;
         this.callable = callable;
     }
 
-    public synchronized boolean cancel(final boolean mayInterruptIfRunning) {
-        if (getPeriod() != -1L) {
-            return false;
-        }
-        setPeriod(-2L);
-        return true;
+    public boolean cancel(final boolean mayInterruptIfRunning) {
+        return cancel0();
     }
 
     public boolean isCancelled() {
@@ -43,64 +57,142 @@ class ForgeFutureImpl<T> extends ForgeTaskImpl implements Future<T> {
         }
     }
 
-    public synchronized T get(long timeout, final TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
-        timeout = unit.toMillis(timeout);
-        long period = this.getPeriod();
-        long timestamp = timeout > 0 ? System.currentTimeMillis() : 0L;
-        while (true) {
-            if (period == -1L || period == -3L) {
-                this.wait(timeout);
-                period = this.getPeriod();
-                if (period == -1L || period == -3L) {
-                    if (timeout == 0L) {
-                        continue;
-                    }
-                    timeout += timestamp - (timestamp = System.currentTimeMillis());
-                    if (timeout > 0) {
-                        continue;
-                    }
-                    throw new TimeoutException();
-                }
-            }
-            if (period == -2L) {
-                throw new CancellationException();
-            }
-            if (period == -4L) {
-                if (exception == null) {
-                    return value;
-                }
-                throw new ExecutionException(exception);
+    /**
+     * Waits for the result, a timeout of 0 waits forever.
+     */
+    public T get(final long timeout, final TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        long period = getPeriod();
+        if ((period == -1L || period == -3L) && scheduler.isMainThread()) {
+            if (period == -3L) {
+                throw new IllegalStateException("Task #" + getTaskId() + " waited on its own result");
             }
-            throw new IllegalStateException("Expected " + -1L + " to " + -4L + ", got " + period);
+            // Nothing else can run it while we wait, so run it here; the heartbeat drops it later
+            scheduler.runRecorded(this);
+            period = getPeriod();
         }
+        if (period == -1L || period == -3L) {
+            period = await(unit.toNanos(timeout));
+        }
+        return report(period);
     }
 
     @Override
     public void run() {
-        synchronized (this) {
-            if (getPeriod() == -2L) {
-                return;
-            }
-            setPeriod(-3L);
+        if (!compareAndSetPeriod(-1L, -3L)) {
+            return;
         }
         try {
             value = callable.call();
         } catch (final Exception e) {
             exception = e;
         } finally {
-            synchronized (this) {
-                setPeriod(-4L);
-                this.notifyAll();
-            }
+            // The volatile write publishes value and exception
+            setPeriod(-4L);
+            release();
         }
     }
 
-    synchronized boolean cancel0() {
-        if (getPeriod() != -1L) {
+    @Override
+    public Class<?> getTaskClass() {
+        return callable.getClass();
+    }
+
+    boolean cancel0() {
+        if (!compareAndSetPeriod(-1L, -2L)) {
             return false;
         }
-        setPeriod(-2L);
-        notifyAll();
+        release();
         return true;
     }
+
+    private T report(final long period) throws ExecutionException {
+        if (period == -2L) {
+            throw new CancellationException();
+        }
+        if (period == -4L) {
+            if (exception == null) {
+                return value;
+            }
+            throw new ExecutionException(exception);
+        }
+        throw new IllegalStateException("Expected " + -1L + " to " + -4L + ", got " + period);
+    }
+
+    private long await(final long timeout) throws InterruptedException, TimeoutException {
+        final long deadline = timeout > 0 ? System.nanoTime() + timeout : 0L;
+        final WaitNode node = new WaitNode(Thread.currentThread());
+        WaitNode head;
+        do {
+            head = waiters;
+            node.next = head;
+        } while (!WAITERS.compareAndSet(this, head, node));
+        while (true) {
+            // Checked after pushing, a settle that happened before it can't miss us
+            final long period = getPeriod();
+            if (period != -1L && period != -3L) {
+                // The stack is dropped as a whole on settle, no need to unlink
+                node.thread = null;
+                return period;
+            }
+            if (Thread.interrupted()) {
+                removeWaiter(node);
+                throw new InterruptedException();
+            }
+            if (deadline == 0L) {
+                LockSupport.park(this);
+            } else {
+                final long remaining = deadline - System.nanoTime();
+                if (remaining <= 0L) {
+                    removeWaiter(node);
+                    throw new TimeoutException();
+                }
+                LockSupport.parkNanos(this, remaining);
+            }
+        }
+    }
+
+    /**
+     * Unlinks a waiter that gave up, along with any other one that did, retrying from the head when it races
+     * another removal or a push.
+     */
+    private void removeWaiter(final WaitNode node) {
+        node.thread = null;
+        retry:
+        while (true) {
+            WaitNode pred = null;
+            for (WaitNode current = waiters, next; current != null; current = next) {
+                next = current.next;
+                if (current.thread != null) {
+                    pred = current;
+                } else if (pred != null) {
+                    pred.next = next;
+                    if (pred.thread == null) {
+                        // The predecessor gave up too meanwhile
+                        continue retry;
+                    }
+                } else if (!WAITERS.compareAndSet(this, current, next)) {
+                    continue retry;
+                }
+            }
+            return;
+        }
+    }
+
+    private void release() {
+        for (WaitNode node = WAITERS.getAndSet(this, null); node != null; node = node.next) {
+            final Thread thread = node.thread;
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+        }
+    }
+
+    private static final class WaitNode {
+        private volatile Thread thread;
+        private volatile WaitNode next;
+
+        WaitNode(final Thread thread) {
+            this.thread = thread;
+        }
+    }
 }
@@ -0,0 +1,135 @@
+package io.github.cruciblemc.praesidium_evolutionis.scheduler;
+
+import cpw.mods.fml.common.ModContainer;
+import org.apiguardian.api.API;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+
+/**
+ * Payload of a keyed task, see {@link ForgeSchedulerImpl#runTaskKeyed(ModContainer, Object, Object, BinaryOperator, Consumer, long, long)}.
+ * <p>
+ * While the task hasn't started, later submissions for the same key are merged into its value and may push its
+ * target tick back, up to a limit set by the first submission. The wheel doesn't know about the target: the task
+ * stays filed at its original deadline and the heartbeat files it again when it comes up before its target.
+ * Starting the task closes it under its lock, so a submission either makes it into the run or creates a new task.
+ */
+@API(status = API.Status.INTERNAL)
+final class ForgeKeyedRunnable<T> implements Runnable {
+
+    private final ConcurrentMap<Key, ForgeKeyedRunnable<?>> keyed;
+    private final Key key;
+    private final BinaryOperator<T> merger;
+    private final Consumer<? super T> action;
+    private final Class<?> actionClass;
+    private final long debounce;
+    private final long limit;
+    private ForgeTaskImpl task;
+    private T value;
+    private boolean closed;
+    private volatile long target;
+
+    ForgeKeyedRunnable(final ConcurrentMap<Key, ForgeKeyedRunnable<?>> keyed, final Key key, final T value, final BinaryOperator<T> merger,
+                       final Consumer<? super T> action, final Class<?> actionClass, final long tick, final long debounce, final long maxWait) {
+        this.keyed = keyed;
+        this.key = key;
+        this.value = value;
+        this.merger = merger;
+        this.action = action;
+        this.actionClass = actionClass;
+        this.debounce = debounce;
+        this.limit = maxWait > 0 ? ForgeTimingWheel.deadline(tick, maxWait) : Long.MAX_VALUE;
+        this.target = Math.min(ForgeTimingWheel.deadline(tick, debounce), limit);
+    }
+
+    ForgeTaskImpl getTask() {
+        return task;
+    }
+
+    void setTask(ForgeTaskImpl task) {
+        this.task = task;
+    }
+
+    /**
+     * @return the tick the task should run at, never before the one it was first filed for.
+     */
+    long getTarget() {
+        return target;
+    }
+
+    Class<?> getActionClass() {
+        return actionClass;
+    }
+
+    /**
+     * Merges a value into the pending task and pushes its target back by the debounce.
+     *
+     * @return false if the task already started or was cancelled, the caller has to create a new one.
+     */
+    synchronized boolean offer(final T value, final long tick) {
+        if (closed || task.getPeriod() == -2L) {
+            return false;
+        }
+        this.value = merger.apply(this.value, value);
+        if (debounce > 0) {
+            final long pushed = Math.min(ForgeTimingWheel.deadline(tick, debounce), limit);
+            if (pushed > target) {
+                target = pushed;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void run() {
+        final T value;
+        synchronized (this) {
+            closed = true;
+            value = this.value;
+            this.value = null;
+        }
+        forget();
+        action.accept(value);
+    }
+
+    /**
+     * Frees the key, so the next submission creates a new task.
+     */
+    void forget() {
+        keyed.remove(key, this);
+    }
+
+    /**
+     * Key of a keyed task, scoped to its mod and to sync or async tasks.
+     */
+    static final class Key {
+        private final ModContainer mod;
+        private final Object key;
+        private final boolean sync;
+
+        Key(final ModContainer mod, final Object key, final boolean sync) {
+            this.mod = mod;
+            this.key = key;
+            this.sync = sync;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) o;
+            return sync == other.sync && Objects.equals(mod, other.mod) && key.equals(other.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return (Objects.hashCode(mod) * 31 + key.hashCode()) * 31 + Boolean.hashCode(sync);
+        }
+    }
+}
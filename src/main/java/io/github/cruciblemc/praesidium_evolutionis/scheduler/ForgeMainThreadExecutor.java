@@ -0,0 +1,33 @@
+package io.github.cruciblemc.praesidium_evolutionis.scheduler;
+
+import cpw.mods.fml.common.ModContainer;
+import io.github.cruciblemc.praesidium_evolutionis.api.scheduler.ForgeScheduler;
+import org.apiguardian.api.API;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+
+/**
+ * Executor that hands every command to the scheduler as a sync task owned by a mod.
+ */
+@API(status = API.Status.INTERNAL)
+final class ForgeMainThreadExecutor implements Executor {
+
+    private final ForgeScheduler scheduler;
+    private final ModContainer mod;
+
+    ForgeMainThreadExecutor(final ForgeScheduler scheduler, final ModContainer mod) {
+        this.scheduler = scheduler;
+        this.mod = Objects.requireNonNull(mod, "Mod cannot be null");
+    }
+
+    @Override
+    public void execute(final Runnable command) {
+        scheduler.runTask(mod, command);
+    }
+
+    @Override
+    public String toString() {
+        return "ForgeMainThreadExecutor{" + mod.getModId() + '}';
+    }
+}
@@ -5,49 +5,208 @@ import cpw.mods.fml.common.eventhandler.SubscribeEvent;
 import cpw.mods.fml.common.gameevent.TickEvent;
 import cpw.mods.fml.relauncher.Side;
 import io.github.cruciblemc.praesidium_evolutionis.PraesidiumEvolutionis;
+import io.github.cruciblemc.praesidium_evolutionis.api.scheduler.ForgeAsyncStats;
+import io.github.cruciblemc.praesidium_evolutionis.api.scheduler.ForgeChunkPolicy;
+import io.github.cruciblemc.praesidium_evolutionis.api.scheduler.ForgeChunkSnapshot;
+import io.github.cruciblemc.praesidium_evolutionis.api.scheduler.ForgeLane;
+import io.github.cruciblemc.praesidium_evolutionis.api.scheduler.ForgeRepeatPolicy;
 import io.github.cruciblemc.praesidium_evolutionis.api.scheduler.ForgeScheduler;
+import io.github.cruciblemc.praesidium_evolutionis.api.scheduler.ForgeSnapshotOption;
 import io.github.cruciblemc.praesidium_evolutionis.api.scheduler.ForgeTask;
+import io.github.cruciblemc.praesidium_evolutionis.api.scheduler.ForgeTaskGroup;
+import io.github.cruciblemc.praesidium_evolutionis.api.scheduler.ForgeTaskPriority;
+import io.github.cruciblemc.praesidium_evolutionis.api.scheduler.ForgeTaskTimings;
 import io.github.cruciblemc.praesidium_evolutionis.api.scheduler.ForgeWorker;
+import io.github.cruciblemc.praesidium_evolutionis.config.CommonConfig;
+import net.minecraft.world.ChunkCoordIntPair;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.IChunkProvider;
+import net.minecraftforge.event.world.ChunkEvent;
+import net.minecraftforge.event.world.WorldEvent;
 import org.apiguardian.api.API;
 
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
 
 @API(status = API.Status.INTERNAL)
 public class ForgeSchedulerImpl implements ForgeScheduler {
 
-    private static final int RECENT_TICKS;
-
-    static {
-        RECENT_TICKS = 30;
-    }
+    private static final long REJECTION_LOG_INTERVAL = TimeUnit.SECONDS.toNanos(1);
 
     private final AtomicInteger ids = new AtomicInteger(1);
-    private final PriorityQueue<ForgeTaskImpl> pending = new PriorityQueue<>(10,
-            (o1, o2) -> (int) (o1.getNextRun() - o2.getNextRun()));
+    private final ForgeTimingWheel pending = new ForgeTimingWheel();
+    /**
+     * Wheels of the other lanes, created as tasks show up for them and only touched by the heartbeat thread.
+     */
+    private final List<Lane> lanes = new ArrayList<>();
+    private final ForgeChunkQueue chunks = new ForgeChunkQueue(this::drop, this::overflowed, CommonConfig.scheduler_chunkMaxParkedTasks);
+    /**
+     * Repeating tasks of every wheel counted per tick of their period, main thread only except for snapshots
+     */
+    private final ForgeStaggerTable staggers = new ForgeStaggerTable();
+    /**
+     * Task groups bound to a tile entity or a world, checked by the heartbeat
+     */
+    private final Set<ForgeTaskGroupImpl> boundGroups = ConcurrentHashMap.newKeySet();
 
-    private final List<ForgeTaskImpl> temp = new ArrayList<>();
 
     private final ConcurrentHashMap<Integer, ForgeTaskImpl> runners = new ConcurrentHashMap<>();
-    private final Executor executor = Executors.newCachedThreadPool(new com.google.common.util.concurrent.ThreadFactoryBuilder().setNameFormat("ReMixed Scheduler Thread - %1$d").build());
+    private final ConcurrentHashMap<ModContainer, Set<ForgeTaskImpl>> modTasks = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<ForgeKeyedRunnable.Key, ForgeKeyedRunnable<?>> keyed = new ConcurrentHashMap<>();
+    private final AtomicLong rejections = new AtomicLong();
+    private final AtomicLong lastRejectionLog = new AtomicLong(System.nanoTime() - REJECTION_LOG_INTERVAL);
+    /**
+     * Chunk tasks dropped because too many were parked, only touched by the heartbeat thread
+     */
+    private long overflows;
+    private long lastOverflowLog = System.nanoTime() - REJECTION_LOG_INTERVAL;
+    private final Executor executor = createExecutor();
+    private final ConcurrentHashMap<ModContainer, ForgeAsyncBulkhead> bulkheads = new ConcurrentHashMap<>();
+    /**
+     * Same bulkheads as the map, for the heartbeat to walk without allocating.
+     */
+    private final List<ForgeAsyncBulkhead> bulkheadList = new CopyOnWriteArrayList<>();
+    /**
+     * Runs queued in any bulkhead, the heartbeat only walks them when there are some.
+     */
+    private final AtomicInteger asyncQueued = new AtomicInteger();
+    /**
+     * Bulkhead of async tasks scheduled without a mod.
+     */
+    private final ForgeAsyncBulkhead orphans = createBulkhead();
+    /**
+     * Times wall clock async tasks, its only thread starts with the first of them.
+     */
+    private final ScheduledThreadPoolExecutor timer;
     private final Side mySide;
-    private final AtomicReference<ForgeTaskImpl> tail;
-    private volatile ForgeTaskImpl head;
-    private volatile int currentTick = -1;
-    private ForgeAsyncDebugger debugHead = new ForgeAsyncDebugger(-1, null) {
-        @Override
-        void debugTo(StringBuilder string) {
-        }
-    };
-    private ForgeAsyncDebugger debugTail = debugHead;
-    private int counter = 0;
+    private final ForgeTaskProfiler profiler = new ForgeTaskProfiler();
+    private final ForgeSubmissionQueue submissions = new ForgeSubmissionQueue();
+    private final Consumer<ForgeTaskImpl> parser = this::parse;
+    private volatile Thread heartbeatThread;
+    private volatile long currentTick = -1;
+    private final ForgeDispatchLog dispatchLog = new ForgeDispatchLog();
+    private long counter = 0;
+    /**
+     * Budget of the current tick and how much of it was spent so far, shared by the start of the tick and the lanes
+     */
+    private long tickBudget;
+    private long tickSpent;
+    /**
+     * Whether a task ran or was left ready this tick, the tick stats are left alone otherwise
+     */
+    private boolean tickBusy;
+    private volatile long lastTickNanos = 0;
+    private volatile int lastTickDeferred = 0;
+    private volatile ForgeTaskImpl runningTask;
+    private volatile long runningSince;
 
     public ForgeSchedulerImpl(Side side) {
         this.mySide = side;
-        this.head = new ForgeTaskImpl(side);
-        this.tail = new AtomicReference<>(head);
+        this.timer = createTimer();
+        if (CommonConfig.scheduler_watchdog) {
+            ForgeTaskWatchdog.start(this, "ReMixed Scheduler Watchdog - " + side);
+        }
+    }
+
+    private Executor createExecutor() {
+        final int core = Math.max(1, CommonConfig.scheduler_asyncCoreThreads);
+        if (CommonConfig.scheduler_asyncWorkStealing) {
+            final AtomicInteger threads = new AtomicInteger();
+            return new ForkJoinPool(core, pool -> {
+                final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("ReMixed Scheduler Thread - " + threads.incrementAndGet());
+                // Mods expect the launch class loader, not the system one
+                thread.setContextClassLoader(ForgeSchedulerImpl.class.getClassLoader());
+                return thread;
+            }, null, true);
+        }
+        final int max = Math.max(core, CommonConfig.scheduler_asyncMaxThreads);
+        final int capacity = CommonConfig.scheduler_asyncQueueCapacity;
+        final ThreadPoolExecutor pool = new ThreadPoolExecutor(core, max, 60L, TimeUnit.SECONDS,
+                capacity > 0 ? new ArrayBlockingQueue<>(capacity) : new SynchronousQueue<>(),
+                new com.google.common.util.concurrent.ThreadFactoryBuilder().setNameFormat("ReMixed Scheduler Thread - %1$d").build(),
+                // Thrown back to the bulkhead, which stops draining until a thread frees up
+                new ThreadPoolExecutor.AbortPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    private ScheduledThreadPoolExecutor createTimer() {
+        final ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1,
+                new com.google.common.util.concurrent.ThreadFactoryBuilder().setNameFormat("ReMixed Scheduler Timer - " + mySide).setDaemon(true).build());
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+
+    private ForgeAsyncBulkhead createBulkhead() {
+        return new ForgeAsyncBulkhead(executor, this::rejected, asyncQueued,
+                CommonConfig.scheduler_modAsyncConcurrency,
+                CommonConfig.scheduler_modAsyncQueueCapacity,
+                CommonConfig.scheduler_modAsyncRate,
+                CommonConfig.scheduler_modAsyncBurst);
+    }
+
+    private ForgeAsyncBulkhead bulkheadFor(final ModContainer mod) {
+        if (mod == null) {
+            return orphans;
+        }
+        final ForgeAsyncBulkhead bulkhead = bulkheads.get(mod);
+        if (bulkhead != null) {
+            return bulkhead;
+        }
+        return bulkheads.computeIfAbsent(mod, k -> {
+            final ForgeAsyncBulkhead created = createBulkhead();
+            bulkheadList.add(created);
+            return created;
+        });
+    }
+
+    /**
+     * Frees the bulkhead slot of an async run, whether it ran or found its task cancelled.
+     */
+    void finished(final ForgeTaskImpl task) {
+        bulkheadFor(task.getOwner()).finished();
+    }
+
+    private void rejected(final ForgeTaskImpl task) {
+        final long total = rejections.incrementAndGet();
+        if (task.getPeriod() < 0) {
+            // A one-shot run that is dropped would otherwise stay in runners forever
+            task.cancel0();
+        }
+        final long now = System.nanoTime();
+        final long last = lastRejectionLog.get();
+        if (now - last >= REJECTION_LOG_INTERVAL && lastRejectionLog.compareAndSet(last, now)) {
+            PraesidiumEvolutionis.logger.warn(
+                    String.format(
+                            "Async task #%s for %s was rejected, the mod's async queue is full (%s rejections so far)",
+                            task.getTaskId(),
+                            task.getOwner() != null ? task.getOwner().getModId() : "unknown",
+                            total));
+        }
+    }
+
+    /**
+     * Drops a chunk task that should have been parked while the parked lists are full.
+     */
+    private void overflowed(final ForgeTaskImpl task) {
+        overflows++;
+        drop(task);
+        final long now = System.nanoTime();
+        if (now - lastOverflowLog >= REJECTION_LOG_INTERVAL) {
+            lastOverflowLog = now;
+            PraesidiumEvolutionis.logger.warn(
+                    String.format(
+                            "Chunk task #%s for %s was dropped instead of parked, %s tasks already wait for their chunk to load (%s dropped so far)",
+                            task.getTaskId(),
+                            task.getOwner() != null ? task.getOwner().getModId() : "unknown",
+                            chunks.countParked(),
+                            overflows));
+        }
     }
 
     private static void validate(final Object task) {
@@ -56,9 +215,46 @@ public class ForgeSchedulerImpl implements ForgeScheduler {
 
     @SubscribeEvent
     public void onTick(TickEvent.ServerTickEvent event) {
-        if (event.phase == TickEvent.Phase.START && mySide.isServer()) {
-            ++counter;
-            mainThreadHeartbeat(counter);
+        if (mySide.isServer()) {
+            if (event.phase == TickEvent.Phase.START) {
+                ++counter;
+                mainThreadHeartbeat(counter);
+            } else {
+                laneHeartbeat(event.phase, false, 0);
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public void onChunkLoad(ChunkEvent.Load event) {
+        if (mySide.isServer() && !event.world.isRemote) {
+            chunks.loaded(event.world, event.getChunk().xPosition, event.getChunk().zPosition);
+        }
+    }
+
+    @SubscribeEvent
+    public void onChunkUnload(ChunkEvent.Unload event) {
+        if (mySide.isServer() && !event.world.isRemote) {
+            chunks.unloaded(event.world, event.getChunk().xPosition, event.getChunk().zPosition);
+        }
+    }
+
+    @SubscribeEvent
+    public void onWorldUnload(WorldEvent.Unload event) {
+        if (mySide.isServer() && !event.world.isRemote) {
+            chunks.unloaded(event.world);
+            for (ForgeTaskGroupImpl group : boundGroups) {
+                if (group.isBoundTo(event.world)) {
+                    group.cancel();
+                }
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public void onTick(TickEvent.WorldTickEvent event) {
+        if (mySide.isServer() && event.side.isServer()) {
+            laneHeartbeat(event.phase, true, event.world.provider.dimensionId);
         }
     }
 
@@ -66,13 +262,20 @@ public class ForgeSchedulerImpl implements ForgeScheduler {
         cancelAllTasks();
         mainThreadHeartbeat(counter);
         counter = 0;
+        currentTick = -1;
+        pending.reset(0);
+        lanes.clear();
     }
 
     @SubscribeEvent
     public void onTick(TickEvent.ClientTickEvent event) {
-        if (event.phase == TickEvent.Phase.START && mySide.isClient()) {
-            ++counter;
-            mainThreadHeartbeat(counter);
+        if (mySide.isClient()) {
+            if (event.phase == TickEvent.Phase.START) {
+                ++counter;
+                mainThreadHeartbeat(counter);
+            } else {
+                laneHeartbeat(event.phase, false, 0);
+            }
         }
     }
 
@@ -116,7 +319,160 @@ public class ForgeSchedulerImpl implements ForgeScheduler {
     }
 
     public ForgeTask runTaskTimer(ModContainer mod, Runnable runnable, long delay, long period) {
+        return runTaskTimer(mod, ForgeLane.TICK_START, runnable, delay, period);
+    }
+
+    public ForgeTask runTaskInChunk(ModContainer mod, World world, int chunkX, int chunkZ, ForgeChunkPolicy policy, Runnable runnable) {
+        return runTaskLaterInChunk(mod, world, chunkX, chunkZ, policy, runnable, 0L);
+    }
+
+    public ForgeTask runTaskLaterInChunk(ModContainer mod, World world, int chunkX, int chunkZ, ForgeChunkPolicy policy, Runnable runnable, long delay) {
+        validate(world);
+        validate(policy);
         validate(runnable);
+        if (world.isRemote || mySide.isClient()) {
+            throw new IllegalArgumentException("Chunk bound tasks are only run by the server scheduler, in server worlds");
+        }
+        if (delay < 0L) {
+            delay = 0;
+        }
+        return handle(new ForgeChunkTask(runnable, mod, nextId(), world, chunkX, chunkZ, policy, mySide), delay);
+    }
+
+    public ForgeTask runTaskLaterAsynchronously(ModContainer mod, Runnable runnable, long delay, TimeUnit unit) {
+        return runTaskTimerAsynchronously(mod, runnable, delay, -1L, unit);
+    }
+
+    public ForgeTask runTaskTimerAsynchronously(ModContainer mod, Runnable runnable, long delay, long period, TimeUnit unit) {
+        return runTaskTimerAsynchronously(mod, runnable, delay, period, unit, ForgeRepeatPolicy.SKIP_MISSED);
+    }
+
+    public ForgeTask runTaskTimerAsynchronously(ModContainer mod, Runnable runnable, long delay, long period, TimeUnit unit, ForgeRepeatPolicy policy) {
+        validate(runnable);
+        validate(unit);
+        validate(policy);
+        if (delay < 0L) {
+            delay = 0;
+        }
+        if (period == 0L) {
+            period = 1L;
+        }
+        final long periodNanos = period > 0L ? Math.max(1L, unit.toNanos(period)) : -1L;
+        final ForgeTimedTaskImpl task = new ForgeTimedTaskImpl(this, mod, runnable, nextId(), periodNanos, mySide);
+        task.setRepeatPolicy(policy);
+        final long delayNanos = unit.toNanos(delay);
+        task.setNextRun(System.nanoTime() + delayNanos);
+        index(task);
+        task.setFuture(timer.schedule(task.getFire(), delayNanos, TimeUnit.NANOSECONDS));
+        return task;
+    }
+
+    /**
+     * Hands a wall clock task to its bulkhead and files its next run, on the timer thread.
+     * The timer never runs mod code.
+     */
+    void fire(final ForgeTimedTaskImpl task) {
+        if (task.getPeriod() == -2L) {
+            return;
+        }
+        dispatchLog.dispatched(currentTick, task);
+        bulkheadFor(task.getOwner()).submit(task);
+        final long period = task.getPeriod();
+        if (period > 0L) {
+            final long now = System.nanoTime();
+            final long due = task.getRepeatPolicy().next(task.getNextRun(), now, period);
+            task.setNextRun(due);
+            task.setFuture(timer.schedule(task.getFire(), Math.max(0L, due - now), TimeUnit.NANOSECONDS));
+        }
+    }
+
+    public ForgeTask runTaskKeyed(ModContainer mod, Object key, Runnable runnable, long debounce, long maxWait) {
+        validate(runnable);
+        return keyed(mod, key, runnable, (previous, latest) -> latest, Runnable::run, runnable.getClass(), debounce, maxWait, true);
+    }
+
+    public <T> ForgeTask runTaskKeyed(ModContainer mod, Object key, T value, BinaryOperator<T> merger, Consumer<? super T> task, long debounce, long maxWait) {
+        validate(merger);
+        validate(task);
+        return keyed(mod, key, value, merger, task, task.getClass(), debounce, maxWait, true);
+    }
+
+    public ForgeTask runTaskKeyedAsynchronously(ModContainer mod, Object key, Runnable runnable, long debounce, long maxWait) {
+        validate(runnable);
+        return keyed(mod, key, runnable, (previous, latest) -> latest, Runnable::run, runnable.getClass(), debounce, maxWait, false);
+    }
+
+    public <T> ForgeTask runTaskKeyedAsynchronously(ModContainer mod, Object key, T value, BinaryOperator<T> merger, Consumer<? super T> task, long debounce, long maxWait) {
+        validate(merger);
+        validate(task);
+        return keyed(mod, key, value, merger, task, task.getClass(), debounce, maxWait, false);
+    }
+
+    private <T> ForgeTask keyed(final ModContainer mod, final Object key, final T value, final BinaryOperator<T> merger, final Consumer<? super T> action,
+                                final Class<?> actionClass, long debounce, final long maxWait, final boolean sync) {
+        validate(key);
+        if (debounce < 0L) {
+            debounce = 0L;
+        }
+        final ForgeKeyedRunnable.Key id = new ForgeKeyedRunnable.Key(mod, key, sync);
+        while (true) {
+            final long tick = currentTick;
+            @SuppressWarnings("unchecked") final ForgeKeyedRunnable<T> current = (ForgeKeyedRunnable<T>) keyed.get(id);
+            if (current != null && current.offer(value, tick)) {
+                return current.getTask();
+            }
+            final ForgeKeyedRunnable<T> created = new ForgeKeyedRunnable<>(keyed, id, value, merger, action, actionClass, tick, debounce, maxWait);
+            final ForgeTaskImpl task = sync
+                    ? new ForgeTaskImpl(created, mod, nextId(), -1L, mySide)
+                    : new ForgeAsyncTaskImpl(this, mod, created, nextId(), -1L, mySide);
+            created.setTask(task);
+            // Lost the race against another submission or a finished task, merge into the winner instead
+            if (current == null ? keyed.putIfAbsent(id, created) == null : keyed.replace(id, current, created)) {
+                return submit(task, created.getTarget());
+            }
+        }
+    }
+
+    public ForgeTask runTask(ModContainer mod, ForgeLane lane, Runnable runnable) {
+        return runTaskLater(mod, lane, runnable, 0L);
+    }
+
+    public ForgeTask runTaskLater(ModContainer mod, ForgeLane lane, Runnable runnable, long delay) {
+        return runTaskTimer(mod, lane, runnable, delay, -1L);
+    }
+
+    public ForgeTask runTaskTimer(ModContainer mod, ForgeLane lane, Runnable runnable, long delay, long period) {
+        return runTaskTimer(mod, lane, runnable, delay, period, ForgeRepeatPolicy.FIXED_DELAY);
+    }
+
+    public ForgeTask runTaskTimer(ModContainer mod, Runnable runnable, long delay, long period, ForgeRepeatPolicy policy) {
+        return runTaskTimer(mod, ForgeLane.TICK_START, runnable, delay, period, policy);
+    }
+
+    public ForgeTask runTaskTimer(ModContainer mod, ForgeLane lane, Runnable runnable, long delay, long period, ForgeRepeatPolicy policy) {
+        return runTaskTimer0(mod, lane, ForgeTaskPriority.NORMAL, runnable, delay, period, policy);
+    }
+
+    public ForgeTask runTask(ModContainer mod, ForgeTaskPriority priority, Runnable runnable) {
+        return runTaskLater(mod, priority, runnable, 0L);
+    }
+
+    public ForgeTask runTaskLater(ModContainer mod, ForgeTaskPriority priority, Runnable runnable, long delay) {
+        return runTaskTimer(mod, priority, runnable, delay, -1L);
+    }
+
+    public ForgeTask runTaskTimer(ModContainer mod, ForgeTaskPriority priority, Runnable runnable, long delay, long period) {
+        return runTaskTimer0(mod, ForgeLane.TICK_START, priority, runnable, delay, period, ForgeRepeatPolicy.FIXED_DELAY);
+    }
+
+    private ForgeTask runTaskTimer0(ModContainer mod, ForgeLane lane, ForgeTaskPriority priority, Runnable runnable, long delay, long period, ForgeRepeatPolicy policy) {
+        validate(lane);
+        validate(priority);
+        validate(runnable);
+        validate(policy);
+        if (lane.isWorld() && mySide.isClient()) {
+            throw new IllegalArgumentException("World lanes are only ticked by the server scheduler");
+        }
         if (delay < 0L) {
             delay = 0;
         }
@@ -125,7 +481,57 @@ public class ForgeSchedulerImpl implements ForgeScheduler {
         } else if (period < -1L) {
             period = -1L;
         }
-        return handle(new ForgeTaskImpl(runnable, mod, nextId(), period, mySide), delay);
+        final ForgeTaskImpl task = new ForgeTaskImpl(runnable, mod, nextId(), period, mySide);
+        if (!ForgeLane.TICK_START.equals(lane)) {
+            task.setLane(lane);
+        }
+        if (!policy.isFixedDelay()) {
+            task.setRepeatPolicy(policy);
+        }
+        task.setPriority(priority);
+        return handle(task, delay);
+    }
+
+    public List<ForgeTask> runTasks(ModContainer mod, Collection<? extends Runnable> runnables) {
+        return runTasksTimer(mod, runnables, 0L, -1L);
+    }
+
+    public List<ForgeTask> runTasksTimer(ModContainer mod, Collection<? extends Runnable> runnables, long delay, long period) {
+        final Runnable[] batch = runnables.toArray(new Runnable[0]);
+        for (Runnable runnable : batch) {
+            validate(runnable);
+        }
+        if (batch.length == 0) {
+            return Collections.emptyList();
+        }
+        if (delay < 0L) {
+            delay = 0;
+        }
+        if (period == 0L) {
+            period = 1L;
+        } else if (period < -1L) {
+            period = -1L;
+        }
+        // One id range and one publication for the whole batch
+        int id = ids.getAndAdd(batch.length) + 1;
+        final long nextRun = ForgeTimingWheel.deadline(currentTick, delay);
+        final List<ForgeTask> tasks = new ArrayList<>(batch.length);
+        ForgeTaskImpl first = null;
+        ForgeTaskImpl last = null;
+        for (Runnable runnable : batch) {
+            final ForgeTaskImpl task = new ForgeTaskImpl(runnable, mod, id++, period, mySide);
+            task.setNextRun(nextRun);
+            index(task);
+            if (last == null) {
+                first = task;
+            } else {
+                last.setNext(task);
+            }
+            last = task;
+            tasks.add(task);
+        }
+        submissions.offer(first, last);
+        return tasks;
     }
 
     @Deprecated
@@ -134,7 +540,12 @@ public class ForgeSchedulerImpl implements ForgeScheduler {
     }
 
     public ForgeTask runTaskTimerAsynchronously(ModContainer mod, Runnable runnable, long delay, long period) {
+        return runTaskTimerAsynchronously(mod, runnable, delay, period, ForgeRepeatPolicy.FIXED_DELAY);
+    }
+
+    public ForgeTask runTaskTimerAsynchronously(ModContainer mod, Runnable runnable, long delay, long period, ForgeRepeatPolicy policy) {
         validate(runnable);
+        validate(policy);
         if (delay < 0L) {
             delay = 0;
         }
@@ -143,124 +554,278 @@ public class ForgeSchedulerImpl implements ForgeScheduler {
         } else if (period < -1L) {
             period = -1L;
         }
-        return handle(new ForgeAsyncTaskImpl(runners, mod, runnable, nextId(), period, mySide), delay);
+        final ForgeAsyncTaskImpl task = new ForgeAsyncTaskImpl(this, mod, runnable, nextId(), period, mySide);
+        if (!policy.isFixedDelay()) {
+            task.setRepeatPolicy(policy);
+        }
+        return handle(task, delay);
     }
 
     public <T> Future<T> callSyncMethod(ModContainer mod, final Callable<T> task) {
         validate(task);
-        final ForgeFutureImpl<T> future = new ForgeFutureImpl<>(task, mod, nextId(), mySide);
+        final ForgeFutureImpl<T> future = new ForgeFutureImpl<>(this, task, mod, nextId(), mySide);
         handle(future, 0L);
         return future;
     }
 
+    public <T> CompletableFuture<T> supplySync(ModContainer mod, final Callable<T> task) {
+        validate(task);
+        final ForgeCompletableTaskImpl<T> completable = new ForgeCompletableTaskImpl<>(task, mod, nextId(), mySide);
+        handle(completable, 0L);
+        return completable.getFuture();
+    }
+
+    public <T> CompletableFuture<List<T>> callSyncBatch(ModContainer mod, final List<? extends Callable<? extends T>> tasks) {
+        validate(tasks);
+        final List<Callable<? extends T>> batch = new ArrayList<>(tasks);
+        for (Callable<? extends T> task : batch) {
+            validate(task);
+        }
+        if (batch.isEmpty()) {
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+        final Callable<List<T>> callable = () -> {
+            final List<T> results = new ArrayList<>(batch.size());
+            for (Callable<? extends T> task : batch) {
+                results.add(task.call());
+            }
+            return Collections.unmodifiableList(results);
+        };
+        final ForgeCompletableTaskImpl<List<T>> completable = new ForgeCompletableTaskImpl<>(callable, batch.get(0).getClass(), mod, nextId(), mySide);
+        handle(completable, 0L);
+        return completable.getFuture();
+    }
+
+    public <T> CompletableFuture<Void> forEachSliced(ModContainer mod, Iterator<? extends T> iterator, Consumer<? super T> action, long budgetNanos) {
+        validate(iterator);
+        return forEachSliced(mod, Spliterators.spliteratorUnknownSize(iterator, 0), action, budgetNanos);
+    }
+
+    public <T> CompletableFuture<Void> forEachSliced(ModContainer mod, Spliterator<T> spliterator, Consumer<? super T> action, long budgetNanos) {
+        validate(spliterator);
+        validate(action);
+        final ForgeSlicedTaskImpl<T> task = new ForgeSlicedTaskImpl<>(spliterator, action, Math.max(0L, budgetNanos), mod, nextId(), mySide);
+        handle(task, 0L);
+        return task.getFuture();
+    }
+
+    public CompletableFuture<List<ForgeChunkSnapshot>> snapshotChunks(ModContainer mod, World world, Collection<ChunkCoordIntPair> chunks, ForgeSnapshotOption... options) {
+        validate(world);
+        validate(chunks);
+        if (world.isRemote != mySide.isClient()) {
+            throw new IllegalArgumentException("Chunks can only be captured by the scheduler of the world's side");
+        }
+        final List<ChunkCoordIntPair> coords = new ArrayList<>(chunks);
+        final List<ForgeSnapshotOption> with = Arrays.asList(options);
+        final boolean withData = with.contains(ForgeSnapshotOption.TILE_DATA);
+        final boolean withOwners = with.contains(ForgeSnapshotOption.TILE_OWNERS);
+        return supplySync(mod, () -> {
+            final IChunkProvider provider = world.getChunkProvider();
+            final List<ForgeChunkSnapshot> snapshots = new ArrayList<>(coords.size());
+            for (ChunkCoordIntPair coord : coords) {
+                // Never load a chunk for a snapshot
+                if (provider.chunkExists(coord.chunkXPos, coord.chunkZPos)) {
+                    snapshots.add(new ForgeChunkSnapshotImpl(
+                            world.getChunkFromChunkCoords(coord.chunkXPos, coord.chunkZPos),
+                            currentTick, withData, withOwners));
+                }
+            }
+            return Collections.unmodifiableList(snapshots);
+        });
+    }
+
+    public CompletableFuture<Void> runSnapshotTaskAsynchronously(ModContainer mod, World world, Collection<ChunkCoordIntPair> chunks, Consumer<? super List<ForgeChunkSnapshot>> task, ForgeSnapshotOption... options) {
+        validate(task);
+        final CompletableFuture<List<ForgeChunkSnapshot>> capture = snapshotChunks(mod, world, chunks, options);
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+        capture.whenComplete((snapshots, failure) -> {
+            if (failure instanceof CancellationException) {
+                done.cancel(false);
+                return;
+            } else if (failure != null) {
+                done.completeExceptionally(failure);
+                return;
+            }
+            final Runnable runnable = () -> {
+                if (done.isDone()) {
+                    return;
+                }
+                try {
+                    task.accept(snapshots);
+                    done.complete(null);
+                } catch (final Throwable t) {
+                    done.completeExceptionally(t);
+                }
+            };
+            handle(new ForgeAsyncTaskImpl(this, mod, runnable, nextId(), -1L, mySide) {
+                @Override
+                boolean cancel0() {
+                    // Cancelled or rejected before it ran
+                    done.cancel(false);
+                    return super.cancel0();
+                }
+            }, 0L);
+        });
+        done.whenComplete((ignored, failure) -> {
+            if (done.isCancelled()) {
+                capture.cancel(false);
+            }
+        });
+        return done;
+    }
+
+    public Executor getMainThreadExecutor(ModContainer mod) {
+        return new ForgeMainThreadExecutor(this, mod);
+    }
+
+    public ForgeTaskGroup createTaskGroup(ModContainer mod) {
+        return new ForgeTaskGroupImpl(this, mod);
+    }
+
+    ForgeTask runGrouped(final ForgeTaskGroupImpl group, final boolean sync, final Runnable runnable, long delay, long period) {
+        validate(runnable);
+        if (delay < 0L) {
+            delay = 0;
+        }
+        if (period == 0L) {
+            period = 1L;
+        } else if (period < -1L) {
+            period = -1L;
+        }
+        final ForgeTaskImpl task = sync
+                ? new ForgeTaskImpl(runnable, group.getOwner(), nextId(), period, mySide)
+                : new ForgeAsyncTaskImpl(this, group.getOwner(), runnable, nextId(), period, mySide);
+        return grouped(group, task, delay);
+    }
+
+    <T> CompletableFuture<T> supplyGrouped(final ForgeTaskGroupImpl group, final Callable<T> callable) {
+        validate(callable);
+        final ForgeCompletableTaskImpl<T> completable = new ForgeCompletableTaskImpl<>(callable, group.getOwner(), nextId(), mySide);
+        grouped(group, completable, 0L);
+        return completable.getFuture();
+    }
+
+    private ForgeTaskImpl grouped(final ForgeTaskGroupImpl group, final ForgeTaskImpl task, final long delay) {
+        task.setGroup(group);
+        if (!group.add(task)) {
+            // The group was cancelled, the task is never published
+            task.cancel0();
+            return task;
+        }
+        return handle(task, delay);
+    }
+
+    void bind(final ForgeTaskGroupImpl group) {
+        if (!group.isCancelled()) {
+            boundGroups.add(group);
+        }
+    }
+
+    void unbind(final ForgeTaskGroupImpl group) {
+        boundGroups.remove(group);
+    }
+
     public void cancelTask(final int taskId) {
         if (taskId <= 0) {
             return;
         }
-        ForgeTaskImpl task = runners.get(taskId);
+        final ForgeTaskImpl task = runners.get(taskId);
         if (task != null) {
-            task.cancel0();
+            cancel(task);
         }
-        task = new ForgeTaskImpl(
-                new Runnable() {
-                    public void run() {
-                        if (!check(temp)) {
-                            check(pending);
-                        }
-                    }
+    }
 
-                    private boolean check(final Iterable<ForgeTaskImpl> collection) {
-                        final Iterator<ForgeTaskImpl> tasks = collection.iterator();
-                        while (tasks.hasNext()) {
-                            final ForgeTaskImpl task = tasks.next();
-                            if (task.getTaskId() == taskId) {
-                                task.cancel0();
-                                tasks.remove();
-                                if (task.isSync()) {
-                                    runners.remove(taskId);
-                                }
-                                return true;
-                            }
-                        }
-                        return false;
+    /**
+     * Cancels the tasks in a single pass: every task is unindexed once, either by its retirement when the heartbeat
+     * thread takes it out of its wheel, or right away otherwise. Tasks of a batch mostly share their owner and lane,
+     * so the owner's task set and the lane's wheel are only looked up again when they change.
+     */
+    public void cancelTasks(final int[] taskIds) {
+        final boolean main = isMainThread();
+        ModContainer owner = null;
+        Set<ForgeTaskImpl> owned = null;
+        ForgeLane lane = null;
+        ForgeTimingWheel wheel = pending;
+        for (int taskId : taskIds) {
+            final ForgeTaskImpl task = taskId > 0 ? runners.get(taskId) : null;
+            if (task == null) {
+                continue;
+            }
+            final boolean cancelled = task.cancel0();
+            if (main) {
+                if (task instanceof ForgeChunkTask && chunks.remove((ForgeChunkTask) task)) {
+                    retire(task);
+                    continue;
+                }
+                if (task.getLane() != lane) {
+                    lane = task.getLane();
+                    wheel = wheelOf(task, false);
+                }
+                if (wheel != null && wheel.remove(task)) {
+                    unstagger(task);
+                    if (task.isSync()) {
+                        // We own the wheel, retiring unindexes it too
+                        retire(task);
+                        continue;
                     }
-                }, mySide);
-        handle(task, 0L);
-        for (ForgeTaskImpl taskPending = head.getNext(); taskPending != null; taskPending = taskPending.getNext()) {
-            if (taskPending == task) {
-                return;
+                }
             }
-            if (taskPending.getTaskId() == taskId) {
-                taskPending.cancel0();
+            if (cancelled) {
+                if (task.getOwner() != owner) {
+                    owner = task.getOwner();
+                    owned = owner != null ? modTasks.get(owner) : null;
+                }
+                if (owned != null) {
+                    owned.remove(task);
+                }
+                if (task.isSync() && task.getGroup() != null) {
+                    task.getGroup().finished(task);
+                }
             }
+            // Otherwise the heartbeat drops it once it comes up
         }
     }
 
     public void cancelTasks(final ModContainer mod) {
         Objects.requireNonNull(mod, "Cannot cancel tasks of null mod");
-        final ForgeTaskImpl task = new ForgeTaskImpl(
-                new Runnable() {
-                    public void run() {
-                        check(ForgeSchedulerImpl.this.pending);
-                        check(ForgeSchedulerImpl.this.temp);
-                    }
-
-                    void check(final Iterable<ForgeTaskImpl> collection) {
-                        final Iterator<ForgeTaskImpl> tasks = collection.iterator();
-                        while (tasks.hasNext()) {
-                            final ForgeTaskImpl task = tasks.next();
-                            if (task.getOwner().equals(mod)) {
-                                task.cancel0();
-                                tasks.remove();
-                                if (task.isSync()) {
-                                    runners.remove(task.getTaskId());
-                                }
-                            }
-                        }
-                    }
-                }, mySide);
-        handle(task, 0L);
-        for (ForgeTaskImpl taskPending = head.getNext(); taskPending != null; taskPending = taskPending.getNext()) {
-            if (taskPending == task) {
-                return;
-            }
-            if (taskPending.getTaskId() != -1 && taskPending.getOwner().equals(mod)) {
-                taskPending.cancel0();
-            }
+        final Set<ForgeTaskImpl> tasks = modTasks.get(mod);
+        if (tasks == null) {
+            return;
         }
-        for (ForgeTaskImpl runner : runners.values()) {
-            if (runner.getOwner().equals(mod)) {
-                runner.cancel0();
-            }
+        for (ForgeTaskImpl task : tasks) {
+            cancel(task);
         }
     }
 
     public void cancelAllTasks() {
         final ForgeTaskImpl task = new ForgeTaskImpl(
                 () -> {
-                    Iterator<ForgeTaskImpl> it = runners.values().iterator();
-                    while (it.hasNext()) {
-                        ForgeTaskImpl task1 = it.next();
+                    for (ForgeTaskImpl task1 : runners.values()) {
                         task1.cancel0();
                         if (task1.isSync()) {
-                            it.remove();
+                            retire(task1);
                         }
                     }
-                    pending.clear();
-                    temp.clear();
+                    pending.reset(pending.getNow());
+                    for (Lane lane : lanes) {
+                        lane.pending.reset(lane.pending.getNow());
+                    }
+                    chunks.reset();
+                    staggers.reset();
                 }, mySide);
         handle(task, 0L);
-        for (ForgeTaskImpl taskPending = head.getNext(); taskPending != null; taskPending = taskPending.getNext()) {
-            if (taskPending == task) {
-                break;
-            }
-            taskPending.cancel0();
-        }
         for (ForgeTaskImpl runner : runners.values()) {
-            runner.cancel0();
+            if (runner.cancel0()) {
+                unindex(runner);
+            }
         }
     }
 
+    public int getTaskCount(final ModContainer mod) {
+        final Set<ForgeTaskImpl> tasks = modTasks.get(mod);
+        return tasks == null ? 0 : tasks.size();
+    }
+
     public boolean isCurrentlyRunning(final int taskId) {
         final ForgeTaskImpl task = runners.get(taskId);
         if (task == null || task.isSync()) {
@@ -268,7 +833,7 @@ public class ForgeSchedulerImpl implements ForgeScheduler {
         }
         final ForgeAsyncTaskImpl asyncTask = (ForgeAsyncTaskImpl) task;
         synchronized (asyncTask.getWorkers()) {
-            return asyncTask.getWorkers().isEmpty();
+            return !asyncTask.getWorkers().isEmpty();
         }
     }
 
@@ -276,13 +841,9 @@ public class ForgeSchedulerImpl implements ForgeScheduler {
         if (taskId <= 0) {
             return false;
         }
-        for (ForgeTaskImpl task = head.getNext(); task != null; task = task.getNext()) {
-            if (task.getTaskId() == taskId) {
-                return task.getPeriod() >= -1L; // The task will run
-            }
-        }
-        ForgeTaskImpl task = runners.get(taskId);
-        return task != null && task.getPeriod() >= -1L;
+        // Every task is indexed as soon as it is submitted
+        final ForgeTaskImpl task = runners.get(taskId);
+        return task != null && task.getPeriod() >= -1L; // The task will run
     }
 
     public List<ForgeWorker> getActiveWorkers() {
@@ -302,125 +863,454 @@ public class ForgeSchedulerImpl implements ForgeScheduler {
     }
 
     public List<ForgeTask> getPendingTasks() {
-        final ArrayList<ForgeTaskImpl> truePending = new ArrayList<>();
-        for (ForgeTaskImpl task = head.getNext(); task != null; task = task.getNext()) {
-            if (task.getTaskId() != -1) {
-                // -1 is special code
-                truePending.add(task);
-            }
-        }
-
         final ArrayList<ForgeTask> pending = new ArrayList<>();
         for (ForgeTaskImpl task : runners.values()) {
             if (task.getPeriod() >= -1L) {
                 pending.add(task);
             }
         }
-
-        for (final ForgeTaskImpl task : truePending) {
-            if (task.getPeriod() >= -1L && !pending.contains(task)) {
-                pending.add(task);
-            }
-        }
         return pending;
     }
 
+    public Map<ModContainer, ForgeTaskTimings> getTimingsByMod() {
+        return profiler.getByMod();
+    }
+
+    public Map<Class<?>, ForgeTaskTimings> getTimingsByTaskClass() {
+        return profiler.getByClass();
+    }
+
+    public Map<Long, int[]> getRepeatingTaskSlots() {
+        return staggers.snapshot();
+    }
+
+    public Map<ModContainer, ForgeAsyncStats> getAsyncStatsByMod() {
+        return new HashMap<>(bulkheads);
+    }
+
+    public void resetTimings() {
+        profiler.reset();
+    }
+
+    public long getTickBudgetNanos() {
+        return CommonConfig.scheduler_tickBudgetMicros * 1000L;
+    }
+
+    public long getLastTickNanos() {
+        return lastTickNanos;
+    }
+
+    public int getLastTickDeferredTasks() {
+        return lastTickDeferred;
+    }
+
     /**
      * This method is designed to never block or wait for locks; an immediate execution of all current tasks.
+     * <p>
+     * When a tick budget is configured, tasks still ready once it runs out are left in the ready list and carried
+     * over to the next tick, ahead of anything that expires later.
      */
-    public void mainThreadHeartbeat(final int currentTick) {
+    public void mainThreadHeartbeat(final long currentTick) {
         this.currentTick = currentTick;
-        final List<ForgeTaskImpl> temp = this.temp;
+        this.heartbeatThread = Thread.currentThread();
+        final long budget = getTickBudgetNanos();
+        final long start = System.nanoTime();
+        tickBudget = budget;
+        tickSpent = 0;
+        tickBusy = false;
         parsePending();
-        while (isReady(currentTick)) {
-            final ForgeTaskImpl task = pending.remove();
+        pending.advance(currentTick);
+        runReady(pending, currentTick, budget, start);
+        runChunkTasks(budget, start);
+        if (asyncQueued.get() > 0) {
+            // Lets in the runs that waited for the token bucket to refill or for the shared pool
+            for (int i = 0; i < bulkheadList.size(); i++) {
+                bulkheadList.get(i).drain();
+            }
+            orphans.drain();
+        }
+        if (currentTick % 20 == 0 && !boundGroups.isEmpty()) {
+            sweepGroups();
+        }
+        tickSpent = System.nanoTime() - start;
+        publishTickStats();
+    }
+
+    /**
+     * Publishes the time spent on the tick so far and the tasks left in every ready list, lanes included, unless
+     * the tick has been idle so far.
+     */
+    private void publishTickStats() {
+        if (!tickBusy) {
+            return;
+        }
+        int deferred = pending.countReady() + chunks.countReady();
+        for (int i = 0; i < lanes.size(); i++) {
+            deferred += lanes.get(i).pending.countReady();
+        }
+        lastTickNanos = tickSpent;
+        lastTickDeferred = deferred;
+    }
+
+    /**
+     * Cancels the groups whose tile entity went away, so their idle repeating tasks don't wait for their next run.
+     */
+    private void sweepGroups() {
+        for (ForgeTaskGroupImpl group : boundGroups) {
+            if (group.isDead()) {
+                group.cancel();
+            } else if (group.isCancelled()) {
+                // Cancelled while it was being bound
+                boundGroups.remove(group);
+            }
+        }
+    }
+
+    /**
+     * Runs the tasks of a lane other than the start of the tick, from the event of that lane, with what the start
+     * of the tick and the lanes before it left of the budget.
+     */
+    private void laneHeartbeat(final TickEvent.Phase phase, final boolean world, final int dimension) {
+        if (lanes.isEmpty() && submissions.isEmpty()) {
+            return;
+        }
+        final long start = System.nanoTime();
+        // Drained here too, so a task submitted earlier in the tick can still make it into its lane this tick
+        parsePending();
+        for (int i = 0; i < lanes.size(); i++) {
+            final Lane lane = lanes.get(i);
+            if (lane.key.matches(phase, world, dimension)) {
+                lane.pending.advance(counter);
+                final long left = tickBudget - tickSpent;
+                if (tickBudget <= 0 || left > 0) {
+                    runReady(lane.pending, counter, tickBudget <= 0 ? 0 : left, start);
+                } else if (lane.pending.hasReady()) {
+                    // Carried over whole
+                    tickBusy = true;
+                }
+                break;
+            }
+        }
+        tickSpent += System.nanoTime() - start;
+        publishTickStats();
+    }
+
+    /**
+     * Runs the expired tasks of a wheel until it has no more or the budget runs out.
+     */
+    private void runReady(final ForgeTimingWheel wheel, final long currentTick, final long budget, final long start) {
+        ForgeTaskImpl task;
+        while ((budget <= 0 || System.nanoTime() - start < budget) && (task = wheel.poll()) != null) {
+            tickBusy = true;
+            final ForgeTaskGroupImpl group = task.getGroup();
+            if (group != null && group.isDead()) {
+                // Cancels this task too, the tile entity of its group went away since the last sweep
+                group.cancel();
+            }
             if (task.getPeriod() < -1L) {
+                unstagger(task);
                 if (task.isSync()) {
-                    runners.remove(task.getTaskId(), task);
+                    retire(task);
                 }
                 parsePending();
                 continue;
             }
-            if (task.isSync()) {
-                try {
-                    task.run();
-                } catch (final Throwable throwable) {
-                    PraesidiumEvolutionis.logger.warn(
-                            String.format(
-                                    "Task #%s for %s generated an exception",
-                                    task.getTaskId(),
-                                    task.getOwner().getModId()));
-                    throwable.printStackTrace();
+            if (task.getTask() instanceof ForgeKeyedRunnable) {
+                final long target = ((ForgeKeyedRunnable<?>) task.getTask()).getTarget();
+                if (target > currentTick) {
+                    // Pushed back by a later submission, file it again instead of running it early
+                    task.setNextRun(target);
+                    wheel.schedule(task);
+                    continue;
                 }
-                parsePending();
+            }
+            if (task instanceof ForgeChunkTask) {
+                // Held until the wheel is done, then run grouped by chunk
+                chunks.expired((ForgeChunkTask) task);
+                continue;
+            }
+            if (task.isSync()) {
+                runSync(task);
             } else {
-                debugTail = debugTail.setNext(new ForgeAsyncDebugger(currentTick + RECENT_TICKS, task.getTaskClass()));
-                executor.execute(task);
+                dispatchLog.dispatched(currentTick, task);
+                bulkheadFor(task.getOwner()).submit(task);
                 // We don't need to parse pending
                 // (async tasks must live with race-conditions if they attempt to cancel between these few lines of code)
             }
             final long period = task.getPeriod(); // State consistency
             if (period > 0) {
-                task.setNextRun(currentTick + period);
-                temp.add(task);
-            } else if (task.isSync()) {
-                runners.remove(task.getTaskId());
+                // The new deadline is at least a tick away unless the policy makes up for a missed run,
+                // which then goes to the back of the ready list and runs again within the budget
+                final ForgeRepeatPolicy policy = task.getRepeatPolicy();
+                task.setNextRun(policy == null
+                        ? ForgeTimingWheel.deadline(currentTick, period)
+                        : policy.next(task.getNextRun(), currentTick, period));
+                if (task.getStaggerRow() != null) {
+                    staggers.moved(task);
+                }
+                wheel.schedule(task);
+            } else {
+                // Done, or cancelled while it ran
+                unstagger(task);
+                if (task.isSync()) {
+                    retire(task);
+                }
             }
         }
-        pending.addAll(temp);
-        temp.clear();
-        debugHead = debugHead.getNextHead(currentTick);
     }
 
-    private void addTask(final ForgeTaskImpl task) {
-        final AtomicReference<ForgeTaskImpl> tail = this.tail;
-        ForgeTaskImpl tailTask = tail.get();
-        while (!tail.compareAndSet(tailTask, task)) {
-            tailTask = tail.get();
+    /**
+     * Runs the chunk tasks that expired, chunk by chunk, with what is left of the budget.
+     */
+    private void runChunkTasks(final long budget, final long start) {
+        ForgeChunkTask task;
+        while ((budget <= 0 || System.nanoTime() - start < budget) && (task = chunks.poll()) != null) {
+            tickBusy = true;
+            if (task.getPeriod() >= -1L) {
+                runSync(task);
+            }
+            retire(task);
+        }
+    }
+
+    private void runSync(final ForgeTaskImpl task) {
+        try {
+            runRecorded(task);
+        } catch (final Throwable throwable) {
+            PraesidiumEvolutionis.logger.warn(
+                    String.format(
+                            "Task #%s for %s generated an exception",
+                            task.getTaskId(),
+                            task.getOwner().getModId()));
+            throwable.printStackTrace();
+        }
+        parsePending();
+    }
+
+    /**
+     * Runs a sync task on the heartbeat thread, published for the watchdog and recorded like every other run.
+     * The caller deals with what the task throws.
+     * <p>
+     * Runs may nest, a task waiting on {@link ForgeFutureImpl#get()} runs the future inline, so the outer run is
+     * published again once the inner one returns.
+     */
+    void runRecorded(final ForgeTaskImpl task) {
+        final ForgeTaskImpl outer = runningTask;
+        final long outerSince = runningSince;
+        final long started = System.nanoTime();
+        // Published for the watchdog, since first so it never pairs a task with an older start
+        runningSince = started;
+        runningTask = task;
+        try {
+            task.run();
+        } finally {
+            runningTask = null;
+            runningSince = outerSince;
+            runningTask = outer;
+            ran(task, started);
         }
-        tailTask.setNext(task);
     }
 
     private ForgeTaskImpl handle(final ForgeTaskImpl task, final long delay) {
-        task.setNextRun(currentTick + delay);
-        addTask(task);
+        return submit(task, ForgeTimingWheel.deadline(currentTick, delay));
+    }
+
+    private ForgeTaskImpl submit(final ForgeTaskImpl task, final long nextRun) {
+        task.setNextRun(nextRun);
+        if (task.getTaskId() != -1) {
+            // Index before publishing, so the task can be cancelled or queried right away
+            index(task);
+        }
+        submissions.offer(task);
         return task;
     }
 
+    private void index(final ForgeTaskImpl task) {
+        runners.put(task.getTaskId(), task);
+        final ModContainer owner = task.getOwner();
+        if (owner != null) {
+            Set<ForgeTaskImpl> tasks = modTasks.get(owner);
+            if (tasks == null) {
+                tasks = modTasks.computeIfAbsent(owner, k -> ConcurrentHashMap.newKeySet());
+            }
+            tasks.add(task);
+        }
+    }
+
+    void cancel(final ForgeTaskImpl task) {
+        if (task.cancel0()) {
+            // The task won't run again, so it no longer counts for its mod even if the wheel still holds it
+            unindex(task);
+            if (task.isSync() && task.getGroup() != null) {
+                // Nor for its group, which may be awaited
+                task.getGroup().finished(task);
+            }
+        }
+        if (isMainThread()) {
+            if (task instanceof ForgeChunkTask && chunks.remove((ForgeChunkTask) task)) {
+                retire(task);
+                return;
+            }
+            final ForgeTimingWheel wheel = wheelOf(task, false);
+            if (wheel != null && wheel.remove(task)) {
+                unstagger(task);
+                if (task.isSync()) {
+                    // We own the wheel, no need to wait for the task to expire
+                    retire(task);
+                }
+            }
+        }
+        // Otherwise the heartbeat drops it once it comes up
+    }
+
+    /**
+     * Records a run of a task that started at the given {@link System#nanoTime()} in the dispatch log,
+     * and in the profiler if profiling is enabled.
+     */
+    void ran(final ForgeTaskImpl task, final long started) {
+        final long nanos = System.nanoTime() - started;
+        dispatchLog.ran(currentTick, task, nanos);
+        if (CommonConfig.scheduler_profiling) {
+            profiler.record(task, nanos);
+        }
+    }
+
+    /**
+     * @return true when called from the thread running this scheduler's heartbeat.
+     */
+    boolean isMainThread() {
+        return Thread.currentThread() == heartbeatThread;
+    }
+
+    Thread getHeartbeatThread() {
+        return heartbeatThread;
+    }
+
+    /**
+     * @return the sync task the heartbeat is running right now, or null.
+     */
+    ForgeTaskImpl getRunningTask() {
+        return runningTask;
+    }
+
+    /**
+     * @return the {@link System#nanoTime()} at which the last sync task started.
+     */
+    long getRunningSince() {
+        return runningSince;
+    }
+
+    /**
+     * Forgets a task that will never run again.
+     */
+    void retire(final ForgeTaskImpl task) {
+        runners.remove(task.getTaskId(), task);
+        unindex(task);
+        if (task.getGroup() != null) {
+            task.getGroup().finished(task);
+        }
+        if (task instanceof ForgeChunkTask) {
+            // Chunk tasks are sync, we are on the heartbeat thread
+            chunks.release((ForgeChunkTask) task);
+        } else if (task.getTask() instanceof ForgeKeyedRunnable) {
+            // Only needed when it was cancelled, a task that started already freed its key
+            ((ForgeKeyedRunnable<?>) task.getTask()).forget();
+        }
+    }
+
+    /**
+     * Cancels and forgets a chunk task whose chunk went away.
+     */
+    private void drop(final ForgeTaskImpl task) {
+        task.cancel0();
+        retire(task);
+    }
+
+    private void unindex(final ForgeTaskImpl task) {
+        final ModContainer owner = task.getOwner();
+        if (owner != null) {
+            final Set<ForgeTaskImpl> tasks = modTasks.get(owner);
+            if (tasks != null) {
+                tasks.remove(task);
+            }
+        }
+    }
+
     private int nextId() {
         return ids.incrementAndGet();
     }
 
     private void parsePending() {
-        ForgeTaskImpl head = this.head;
-        ForgeTaskImpl task = head.getNext();
-        ForgeTaskImpl lastTask = head;
-        for (; task != null; task = (lastTask = task).getNext()) {
-            if (task.getTaskId() == -1) {
-                task.run();
-            } else if (task.getPeriod() >= -1L) {
-                pending.add(task);
-                runners.put(task.getTaskId(), task);
+        submissions.drain(parser);
+    }
+
+    private void parse(final ForgeTaskImpl task) {
+        if (task.getTaskId() == -1) {
+            task.run();
+        } else if (task.getPeriod() >= -1L) {
+            if (task instanceof ForgeChunkTask) {
+                chunks.track((ForgeChunkTask) task);
+            }
+            final long period = task.getPeriod();
+            if (period > 1L && period <= CommonConfig.scheduler_staggerMaxPeriod) {
+                staggers.track(task, currentTick, period, CommonConfig.scheduler_staggerRepeatingTasks);
             }
+            wheelOf(task, true).schedule(task);
+        } else if (task.isSync()) {
+            // Cancelled before it was ever parsed
+            retire(task);
         }
-        // We split this because of the way things are ordered for all the async calls in CraftScheduler
-        // (it prevents race-conditions)
-        for (task = head; task != lastTask; task = head) {
-            head = task.getNext();
-            task.setNext(null);
+    }
+
+    /**
+     * Removes a repeating task that left its wheel for good from the stagger table.
+     */
+    private void unstagger(final ForgeTaskImpl task) {
+        if (task.getStaggerRow() != null) {
+            staggers.untrack(task);
         }
-        this.head = lastTask;
     }
 
-    private boolean isReady(final int currentTick) {
-        return !pending.isEmpty() && pending.peek().getNextRun() <= currentTick;
+    /**
+     * @return the wheel holding the tasks of the task's lane, null if that lane has no wheel and none is created.
+     */
+    private ForgeTimingWheel wheelOf(final ForgeTaskImpl task, final boolean create) {
+        final ForgeLane key = task.getLane();
+        if (key == null) {
+            return pending;
+        }
+        for (int i = 0; i < lanes.size(); i++) {
+            final Lane lane = lanes.get(i);
+            if (lane.key.equals(key)) {
+                return lane.pending;
+            }
+        }
+        if (!create) {
+            return null;
+        }
+        final Lane lane = new Lane(key, pending.getNow());
+        lanes.add(lane);
+        return lane.pending;
     }
 
     @Override
     public String toString() {
-        int debugTick = currentTick;
-        StringBuilder string = new StringBuilder("Recent tasks from ").append(debugTick - RECENT_TICKS).append('-').append(debugTick).append('{');
-        debugHead.debugTo(string);
+        long debugTick = currentTick;
+        StringBuilder string = new StringBuilder("Recent tasks from ").append(dispatchLog.oldestTick(debugTick)).append('-').append(debugTick).append('{');
+        dispatchLog.debugTo(string);
         return string.append('}').toString();
     }
+
+    /**
+     * Pending tasks of a {@link ForgeLane}, the wheel starts at the current tick so it never has to catch up.
+     */
+    private static final class Lane {
+        private final ForgeLane key;
+        private final ForgeTimingWheel pending = new ForgeTimingWheel();
+
+        Lane(final ForgeLane key, final long tick) {
+            this.key = key;
+            pending.reset(tick);
+        }
+    }
 }
@@ -0,0 +1,88 @@
+package io.github.cruciblemc.praesidium_evolutionis.scheduler;
+
+import cpw.mods.fml.common.ModContainer;
+import cpw.mods.fml.relauncher.Side;
+import org.apiguardian.api.API;
+
+import java.util.Spliterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Sync task walking a spliterator a slice per tick, see
+ * {@link ForgeSchedulerImpl#forEachSliced(ModContainer, Spliterator, Consumer, long)}.
+ * <p>
+ * The task repeats every tick with a period of 1 until the spliterator is exhausted, then moves to -4 like a done
+ * future so the heartbeat retires it after the run. The future follows: -2 cancelled, -4 done.
+ */
+@API(status = API.Status.INTERNAL)
+class ForgeSlicedTaskImpl<T> extends ForgeTaskImpl {
+
+    private final Spliterator<T> spliterator;
+    private final Consumer<? super T> action;
+    private final long budget;
+    private final TaskFuture future = new TaskFuture();
+
+    ForgeSlicedTaskImpl(final Spliterator<T> spliterator, final Consumer<? super T> action, final long budget, ModContainer owner, final int id, Side side) {
+        super(null, owner, id, 1L, side);
+        this.spliterator = spliterator;
+        this.action = action;
+        this.budget = budget;
+    }
+
+    CompletableFuture<Void> getFuture() {
+        return future;
+    }
+
+    @Override
+    public void run() {
+        if (getPeriod() != 1L) {
+            return;
+        }
+        final long start = System.nanoTime();
+        try {
+            // At least one element per tick, whatever the budget
+            do {
+                if (!spliterator.tryAdvance(action)) {
+                    if (compareAndSetPeriod(1L, -4L)) {
+                        future.complete(null);
+                    }
+                    return;
+                }
+            } while (System.nanoTime() - start < budget && getPeriod() == 1L);
+        } catch (final Throwable t) {
+            if (compareAndSetPeriod(1L, -4L)) {
+                future.completeExceptionally(t);
+            }
+        }
+    }
+
+    @Override
+    public Class<?> getTaskClass() {
+        return action.getClass();
+    }
+
+    boolean cancel0() {
+        if (!compareAndSetPeriod(1L, -2L)) {
+            return false;
+        }
+        future.cancelled();
+        return true;
+    }
+
+    private class TaskFuture extends CompletableFuture<Void> {
+
+        @Override
+        public boolean cancel(final boolean mayInterruptIfRunning) {
+            if (getPeriod() == 1L) {
+                // Goes through the scheduler so the task is unindexed too
+                ForgeSlicedTaskImpl.this.cancel();
+            }
+            return isCancelled();
+        }
+
+        void cancelled() {
+            super.cancel(false);
+        }
+    }
+}
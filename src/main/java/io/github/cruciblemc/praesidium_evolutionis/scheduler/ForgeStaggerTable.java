@@ -0,0 +1,94 @@
+package io.github.cruciblemc.praesidium_evolutionis.scheduler;
+
+import org.apiguardian.api.API;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * How many repeating tasks fire on each tick of their period, one row of slots per period.
+ * <p>
+ * A task is filed on the slot of its next run modulo its period when it's first parsed, and moved when a late run
+ * puts it on another slot. When staggering is enabled, a new task is first moved forward to the least busy slot of
+ * its period, so tasks scheduled together spread over the period instead of all firing on the same tick.
+ * <p>
+ * Only the heartbeat thread files and moves tasks, the lock is for the snapshots taken by other threads.
+ */
+@API(status = API.Status.INTERNAL)
+final class ForgeStaggerTable {
+
+    private final Map<Long, int[]> rows = new HashMap<>();
+
+    /**
+     * Files a repeating task that was never scheduled, after moving its first run to the least busy slot if asked.
+     *
+     * @param tick the tick being run, a task due before it runs on it.
+     */
+    synchronized void track(final ForgeTaskImpl task, final long tick, final long period, final boolean stagger) {
+        int[] row = rows.get(period);
+        if (row == null) {
+            row = new int[(int) period];
+            rows.put(period, row);
+        }
+        final long due = Math.max(task.getNextRun(), tick);
+        final int first = (int) Math.floorMod(due, period);
+        int offset = 0;
+        if (stagger) {
+            for (int i = 1; i < row.length && row[(first + offset) % row.length] > 0; i++) {
+                if (row[(first + i) % row.length] < row[(first + offset) % row.length]) {
+                    offset = i;
+                }
+            }
+            if (offset > 0) {
+                task.setNextRun(ForgeTimingWheel.deadline(due, offset));
+            }
+        }
+        final int slot = (first + offset) % row.length;
+        row[slot]++;
+        task.setStaggerRow(row);
+        task.setStaggerSlot(slot);
+    }
+
+    /**
+     * Moves a task that was rescheduled to the slot of its next run.
+     */
+    void moved(final ForgeTaskImpl task) {
+        final int[] row = task.getStaggerRow();
+        final int slot = (int) Math.floorMod(task.getNextRun(), (long) row.length);
+        if (slot != task.getStaggerSlot()) {
+            synchronized (this) {
+                row[task.getStaggerSlot()]--;
+                row[slot]++;
+            }
+            task.setStaggerSlot(slot);
+        }
+    }
+
+    /**
+     * Removes a task that left the wheel for good.
+     */
+    synchronized void untrack(final ForgeTaskImpl task) {
+        task.getStaggerRow()[task.getStaggerSlot()]--;
+        task.setStaggerRow(null);
+    }
+
+    synchronized void reset() {
+        rows.clear();
+    }
+
+    /**
+     * @return a copy of every row that has a task filed, by period.
+     */
+    synchronized Map<Long, int[]> snapshot() {
+        final Map<Long, int[]> copy = new HashMap<>();
+        for (Map.Entry<Long, int[]> entry : rows.entrySet()) {
+            for (int count : entry.getValue()) {
+                if (count > 0) {
+                    copy.put(entry.getKey(), entry.getValue().clone());
+                    break;
+                }
+            }
+        }
+        return copy;
+    }
+}
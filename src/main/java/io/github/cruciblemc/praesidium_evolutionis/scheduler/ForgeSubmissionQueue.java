@@ -0,0 +1,71 @@
+package io.github.cruciblemc.praesidium_evolutionis.scheduler;
+
+import cpw.mods.fml.relauncher.Side;
+import org.apiguardian.api.API;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Multi-producer, single-consumer queue for newly submitted tasks, after Dmitry Vyukov's intrusive MPSC queue.
+ * <p>
+ * Producers publish with a single {@link AtomicReference#getAndSet(Object) swap} of the tail followed by a link
+ * from the previous tail, so they never retry or spin. The consumer, the thread running the heartbeat, drains
+ * everything that was published before the drain started in one batch. A producer caught between the swap and the
+ * link only delays the nodes after it until the next drain, the chain is never read past a missing link.
+ */
+@API(status = API.Status.INTERNAL)
+final class ForgeSubmissionQueue {
+
+    private final AtomicReference<ForgeTaskImpl> tail;
+    /**
+     * Stub or last consumed node, only touched by the consumer.
+     */
+    private ForgeTaskImpl head;
+
+    ForgeSubmissionQueue() {
+        this.head = new ForgeTaskImpl((Side) null);
+        this.tail = new AtomicReference<>(head);
+    }
+
+    void offer(final ForgeTaskImpl task) {
+        offer(task, task);
+    }
+
+    /**
+     * Publishes a chain of tasks already linked through {@link ForgeTaskImpl#getNext()}, from first to last,
+     * with a single swap of the tail.
+     */
+    void offer(final ForgeTaskImpl first, final ForgeTaskImpl last) {
+        final ForgeTaskImpl previous = tail.getAndSet(last);
+        previous.setNext(first);
+    }
+
+    boolean isEmpty() {
+        return head.getNext() == null;
+    }
+
+    /**
+     * Hands every task published before this call to the consumer, in submission order.
+     *
+     * @return the number of tasks drained.
+     */
+    int drain(final Consumer<ForgeTaskImpl> consumer) {
+        final ForgeTaskImpl last = tail.get();
+        ForgeTaskImpl current = head;
+        int drained = 0;
+        while (current != last) {
+            final ForgeTaskImpl next = current.getNext();
+            if (next == null) {
+                // A producer swapped the tail but didn't link yet, the rest is picked up next time
+                break;
+            }
+            current.setNext(null);
+            current = next;
+            head = current;
+            consumer.accept(current);
+            drained++;
+        }
+        return drained;
+    }
+}
@@ -0,0 +1,228 @@
+package io.github.cruciblemc.praesidium_evolutionis.scheduler;
+
+import cpw.mods.fml.common.ModContainer;
+import io.github.cruciblemc.praesidium_evolutionis.api.scheduler.ForgeTask;
+import io.github.cruciblemc.praesidium_evolutionis.api.scheduler.ForgeTaskGroup;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.world.World;
+import net.minecraftforge.common.DimensionManager;
+import org.apiguardian.api.API;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Task group handing its tasks to the scheduler, see {@link ForgeSchedulerImpl#createTaskGroup(ModContainer)}.
+ * <p>
+ * The group holds its tasks until the scheduler retires them, and creates a new future every time it goes from idle
+ * to busy, completed when it's idle again. A task is added before it's published, so it can't retire before the
+ * group knows about it.
+ * <p>
+ * A bound group is only watched by the scheduler while it is busy, so short-lived groups don't pile up in it. What an
+ * idle group is bound to is checked when a task is added, and when it's asked whether it was cancelled.
+ */
+@API(status = API.Status.INTERNAL)
+final class ForgeTaskGroupImpl implements ForgeTaskGroup {
+
+    private final ForgeSchedulerImpl scheduler;
+    private final ModContainer owner;
+    private final Set<ForgeTaskImpl> tasks = new HashSet<>();
+    /**
+     * null while the group is idle
+     */
+    private CompletableFuture<Void> done;
+    private volatile boolean cancelled;
+    private volatile TileEntity tile;
+    private volatile World world;
+
+    ForgeTaskGroupImpl(final ForgeSchedulerImpl scheduler, final ModContainer owner) {
+        this.scheduler = scheduler;
+        this.owner = Objects.requireNonNull(owner, "Mod cannot be null");
+    }
+
+    @Override
+    public ModContainer getOwner() {
+        return owner;
+    }
+
+    @Override
+    public ForgeTask runTask(final Runnable task) {
+        return runTaskLater(task, 0L);
+    }
+
+    @Override
+    public ForgeTask runTaskLater(final Runnable task, final long delay) {
+        return runTaskTimer(task, delay, -1L);
+    }
+
+    @Override
+    public ForgeTask runTaskTimer(final Runnable task, final long delay, final long period) {
+        return scheduler.runGrouped(this, true, task, delay, period);
+    }
+
+    @Override
+    public ForgeTask runTaskAsynchronously(final Runnable task) {
+        return runTaskLaterAsynchronously(task, 0L);
+    }
+
+    @Override
+    public ForgeTask runTaskLaterAsynchronously(final Runnable task, final long delay) {
+        return runTaskTimerAsynchronously(task, delay, -1L);
+    }
+
+    @Override
+    public ForgeTask runTaskTimerAsynchronously(final Runnable task, final long delay, final long period) {
+        return scheduler.runGrouped(this, false, task, delay, period);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> supplySync(final Callable<T> task) {
+        return scheduler.supplyGrouped(this, task);
+    }
+
+    @Override
+    public synchronized ForgeTaskGroup bindTo(final TileEntity tile) {
+        this.tile = Objects.requireNonNull(tile, "Tile entity cannot be null");
+        if (!tasks.isEmpty()) {
+            scheduler.bind(this);
+        }
+        return this;
+    }
+
+    @Override
+    public synchronized ForgeTaskGroup bindTo(final World world) {
+        this.world = Objects.requireNonNull(world, "World cannot be null");
+        if (!tasks.isEmpty()) {
+            scheduler.bind(this);
+        }
+        return this;
+    }
+
+    /**
+     * @return true if the tile entity the group is bound to went away.
+     */
+    boolean isDead() {
+        final TileEntity tile = this.tile;
+        return tile != null && tile.isInvalid();
+    }
+
+    /**
+     * @return true if the tile entity or the world the group is bound to went away, the world is only checked
+     * here since busy groups are cancelled as it unloads.
+     */
+    private boolean isGone() {
+        if (isDead()) {
+            return true;
+        }
+        final World world = this.world;
+        return world != null && DimensionManager.getWorld(world.provider.dimensionId) != world;
+    }
+
+    /**
+     * @return true if the group is bound to the world, or to a tile entity in it.
+     */
+    boolean isBoundTo(final World world) {
+        final TileEntity tile = this.tile;
+        return this.world == world || tile != null && tile.getWorldObj() == world;
+    }
+
+    /**
+     * Adds a task that is about to be published.
+     *
+     * @return false if the group was cancelled, the task must not run.
+     */
+    synchronized boolean add(final ForgeTaskImpl task) {
+        if (cancelled) {
+            return false;
+        }
+        if ((tile != null || world != null) && isGone()) {
+            if (tasks.isEmpty()) {
+                // Nothing to cancel, the group just never gets busy again
+                cancelled = true;
+            }
+            // Otherwise the scheduler cancels the rest before they run
+            return false;
+        }
+        if (tasks.isEmpty()) {
+            done = new CompletableFuture<>();
+            if (tile != null || world != null) {
+                scheduler.bind(this);
+            }
+        }
+        tasks.add(task);
+        return true;
+    }
+
+    /**
+     * Removes a task the scheduler is done with, may be called more than once.
+     */
+    void finished(final ForgeTaskImpl task) {
+        final CompletableFuture<Void> done;
+        synchronized (this) {
+            if (!tasks.remove(task) || !tasks.isEmpty() || this.done == null) {
+                return;
+            }
+            done = this.done;
+            this.done = null;
+            // Idle groups aren't watched, see add
+            scheduler.unbind(this);
+        }
+        done.complete(null);
+    }
+
+    @Override
+    public synchronized int getTaskCount() {
+        return tasks.size();
+    }
+
+    @Override
+    public void cancel() {
+        final List<ForgeTaskImpl> tasks;
+        final CompletableFuture<Void> done;
+        synchronized (this) {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            tasks = new ArrayList<>(this.tasks);
+            done = this.done;
+            this.done = null;
+        }
+        if (done != null) {
+            done.cancel(false);
+        }
+        for (ForgeTaskImpl task : tasks) {
+            scheduler.cancel(task);
+        }
+        scheduler.unbind(this);
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled || (tile != null || world != null) && isGone();
+    }
+
+    @Override
+    public synchronized CompletableFuture<Void> whenDone() {
+        if (done != null) {
+            return done;
+        }
+        final CompletableFuture<Void> idle = new CompletableFuture<>();
+        if (isCancelled()) {
+            idle.cancel(false);
+        } else {
+            idle.complete(null);
+        }
+        return idle;
+    }
+
+    @Override
+    public String toString() {
+        return "ForgeTaskGroup{" + owner.getModId() + ", tasks=" + getTaskCount() + (cancelled ? ", cancelled}" : "}");
+    }
+}
@@ -2,13 +2,20 @@ package io.github.cruciblemc.praesidium_evolutionis.scheduler;
 
 import cpw.mods.fml.common.ModContainer;
 import cpw.mods.fml.relauncher.Side;
+import io.github.cruciblemc.praesidium_evolutionis.api.scheduler.ForgeLane;
+import io.github.cruciblemc.praesidium_evolutionis.api.scheduler.ForgeRepeatPolicy;
 import io.github.cruciblemc.praesidium_evolutionis.api.scheduler.ForgeTask;
+import io.github.cruciblemc.praesidium_evolutionis.api.scheduler.ForgeTaskPriority;
 import io.github.cruciblemc.praesidium_evolutionis.api.scheduler.SchedulerManager;
 import org.apiguardian.api.API;
 
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
 @API(status = API.Status.INTERNAL)
 public class ForgeTaskImpl implements ForgeTask, Runnable {
 
+    private static final AtomicLongFieldUpdater<ForgeTaskImpl> PERIOD = AtomicLongFieldUpdater.newUpdater(ForgeTaskImpl.class, "period");
+
     private final Runnable task;
     private final int id;
     private final ModContainer owner;
@@ -24,6 +31,23 @@ public class ForgeTaskImpl implements ForgeTask, Runnable {
      */
     private volatile long period;
     private long nextRun;
+    private ForgeTaskImpl wheelNext;
+    private ForgeTaskImpl wheelPrev;
+    /**
+     * null for the start of the tick
+     */
+    private ForgeLane lane;
+    /**
+     * null for {@link ForgeRepeatPolicy#FIXED_DELAY}
+     */
+    private ForgeRepeatPolicy repeatPolicy;
+    private ForgeTaskPriority priority = ForgeTaskPriority.NORMAL;
+    private ForgeTaskGroupImpl group;
+    /**
+     * null unless filed in the stagger table of the scheduler
+     */
+    private int[] staggerRow;
+    private int staggerSlot;
 
     ForgeTaskImpl(Side side) {
         this(null, null, -1, -1, side);
@@ -61,6 +85,10 @@ public class ForgeTaskImpl implements ForgeTask, Runnable {
         this.period = period;
     }
 
+    boolean compareAndSetPeriod(long expect, long update) {
+        return PERIOD.compareAndSet(this, expect, update);
+    }
+
     long getNextRun() {
         return nextRun;
     }
@@ -77,8 +105,76 @@ public class ForgeTaskImpl implements ForgeTask, Runnable {
         this.next = next;
     }
 
-    public Class<? extends Runnable> getTaskClass() {
-        return task.getClass();
+    ForgeTaskImpl getWheelNext() {
+        return wheelNext;
+    }
+
+    void setWheelNext(ForgeTaskImpl wheelNext) {
+        this.wheelNext = wheelNext;
+    }
+
+    ForgeTaskImpl getWheelPrev() {
+        return wheelPrev;
+    }
+
+    void setWheelPrev(ForgeTaskImpl wheelPrev) {
+        this.wheelPrev = wheelPrev;
+    }
+
+    ForgeLane getLane() {
+        return lane;
+    }
+
+    void setLane(ForgeLane lane) {
+        this.lane = lane;
+    }
+
+    ForgeRepeatPolicy getRepeatPolicy() {
+        return repeatPolicy;
+    }
+
+    void setRepeatPolicy(ForgeRepeatPolicy repeatPolicy) {
+        this.repeatPolicy = repeatPolicy;
+    }
+
+    ForgeTaskPriority getPriority() {
+        return priority;
+    }
+
+    void setPriority(ForgeTaskPriority priority) {
+        this.priority = priority;
+    }
+
+    ForgeTaskGroupImpl getGroup() {
+        return group;
+    }
+
+    void setGroup(ForgeTaskGroupImpl group) {
+        this.group = group;
+    }
+
+    int[] getStaggerRow() {
+        return staggerRow;
+    }
+
+    void setStaggerRow(int[] staggerRow) {
+        this.staggerRow = staggerRow;
+    }
+
+    int getStaggerSlot() {
+        return staggerSlot;
+    }
+
+    void setStaggerSlot(int staggerSlot) {
+        this.staggerSlot = staggerSlot;
+    }
+
+    Runnable getTask() {
+        return task;
+    }
+
+    public Class<?> getTaskClass() {
+        return task instanceof ForgeKeyedRunnable ? ((ForgeKeyedRunnable<?>) task).getActionClass() : task.getClass();
     }
 
     public void cancel() {
@@ -0,0 +1,117 @@
+package io.github.cruciblemc.praesidium_evolutionis.scheduler;
+
+import cpw.mods.fml.common.ModContainer;
+import io.github.cruciblemc.praesidium_evolutionis.api.scheduler.ForgeTaskTimings;
+import org.apiguardian.api.API;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregates run times of sync and async tasks per mod and per task class.
+ * <p>
+ * Recording only allocates the first time a mod or a class is seen, afterwards it is a couple of map lookups
+ * and atomic adds, safe to call from the main thread and from async workers at the same time.
+ */
+@API(status = API.Status.INTERNAL)
+final class ForgeTaskProfiler {
+
+    private final ConcurrentHashMap<ModContainer, Timings> byMod = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Class<?>, Timings> byClass = new ConcurrentHashMap<>();
+
+    private static <K> Timings timings(final ConcurrentHashMap<K, Timings> map, final K key) {
+        Timings timings = map.get(key);
+        if (timings == null) {
+            timings = map.computeIfAbsent(key, k -> new Timings());
+        }
+        return timings;
+    }
+
+    void record(final ForgeTaskImpl task, final long nanos) {
+        final ModContainer owner = task.getOwner();
+        if (owner != null) {
+            timings(byMod, owner).record(nanos);
+        }
+        timings(byClass, task.getTaskClass()).record(nanos);
+    }
+
+    Map<ModContainer, ForgeTaskTimings> getByMod() {
+        return new HashMap<>(byMod);
+    }
+
+    Map<Class<?>, ForgeTaskTimings> getByClass() {
+        return new HashMap<>(byClass);
+    }
+
+    void reset() {
+        byMod.clear();
+        byClass.clear();
+    }
+
+    private static final class Timings implements ForgeTaskTimings {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder total = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+        private final AtomicLongArray histogram = new AtomicLongArray(Long.SIZE);
+
+        void record(final long nanos) {
+            final long time = Math.max(nanos, 0L);
+            count.increment();
+            total.add(time);
+            histogram.incrementAndGet(time == 0L ? 0 : 63 - Long.numberOfLeadingZeros(time));
+            long current;
+            while (time > (current = max.get()) && !max.compareAndSet(current, time)) {
+                // Retry until we either win or a slower run was recorded
+            }
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getTotalNanos() {
+            return total.sum();
+        }
+
+        public long getMaxNanos() {
+            return max.get();
+        }
+
+        public long[] getHistogram() {
+            final long[] copy = new long[histogram.length()];
+            for (int i = 0; i < copy.length; i++) {
+                copy[i] = histogram.get(i);
+            }
+            return copy;
+        }
+
+        public long getPercentileNanos(final double percentile) {
+            final long[] buckets = getHistogram();
+            long runs = 0;
+            for (long bucket : buckets) {
+                runs += bucket;
+            }
+            if (runs == 0) {
+                return 0L;
+            }
+            final double target = runs * Math.min(Math.max(percentile, 0D), 100D) / 100D;
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= target && buckets[i] > 0) {
+                    return (1L << (i + 1)) - 1;
+                }
+            }
+            return getMaxNanos();
+        }
+
+        @Override
+        public String toString() {
+            return "Timings{count=" + getCount() + ", total=" + getTotalNanos() + "ns, max=" + getMaxNanos() + "ns}";
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package io.github.cruciblemc.praesidium_evolutionis.scheduler;
+
+import io.github.cruciblemc.praesidium_evolutionis.PraesidiumEvolutionis;
+import io.github.cruciblemc.praesidium_evolutionis.config.CommonConfig;
+import org.apiguardian.api.API;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the sync task currently running on the heartbeat thread of a {@link ForgeSchedulerImpl}.
+ * <p>
+ * Once a task runs longer than the configured threshold its thread is sampled at a fixed interval, and the samples
+ * are folded into {@code frame;frame;frame count} lines, root first, the format flame graph tools read. The profile
+ * is logged with the owning mod and task id when the task returns, and periodically while it is still running so a
+ * task that never returns is reported too.
+ */
+@API(status = API.Status.INTERNAL)
+final class ForgeTaskWatchdog implements Runnable {
+
+    private static final long REPORT_INTERVAL = TimeUnit.SECONDS.toNanos(10);
+
+    private final ForgeSchedulerImpl scheduler;
+    private final long threshold;
+    private final long interval;
+    private final Map<String, int[]> samples = new HashMap<>();
+    private ForgeTaskImpl task;
+    private long since;
+    private long elapsed;
+    private long lastReport;
+    private int sampled;
+
+    private ForgeTaskWatchdog(final ForgeSchedulerImpl scheduler, final long threshold, final long interval) {
+        this.scheduler = scheduler;
+        this.threshold = threshold;
+        this.interval = interval;
+    }
+
+    static void start(final ForgeSchedulerImpl scheduler, final String name) {
+        final ForgeTaskWatchdog watchdog = new ForgeTaskWatchdog(
+                scheduler,
+                TimeUnit.MILLISECONDS.toNanos(CommonConfig.scheduler_watchdogThresholdMillis),
+                Math.max(1, CommonConfig.scheduler_watchdogSampleMillis));
+        final Thread thread = new Thread(watchdog, name);
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MAX_PRIORITY);
+        thread.start();
+    }
+
+    @Override
+    public void run() {
+        while (true) {
+            try {
+                Thread.sleep(interval);
+            } catch (final InterruptedException e) {
+                return;
+            }
+            check();
+        }
+    }
+
+    private void check() {
+        final ForgeTaskImpl current = scheduler.getRunningTask();
+        final long started = scheduler.getRunningSince();
+        if (current != task || started != since) {
+            // The run we were watching is over, whether we sampled it or not
+            if (sampled > 0) {
+                report(true);
+            }
+            task = current;
+            since = started;
+        }
+        if (current == null) {
+            return;
+        }
+        final long now = System.nanoTime();
+        if (now - started < threshold) {
+            return;
+        }
+        final Thread thread = scheduler.getHeartbeatThread();
+        if (thread == null) {
+            return;
+        }
+        final StackTraceElement[] stack = thread.getStackTrace();
+        if (scheduler.getRunningTask() != current || scheduler.getRunningSince() != started) {
+            // Returned while we were sampling, the stack may belong to something else
+            return;
+        }
+        elapsed = now - started;
+        if (sampled == 0) {
+            lastReport = now;
+            PraesidiumEvolutionis.logger.warn(
+                    String.format(
+                            "Task #%s for %s has been running on the main thread for %sms, sampling it",
+                            current.getTaskId(),
+                            owner(current),
+                            TimeUnit.NANOSECONDS.toMillis(elapsed)));
+        }
+        samples.computeIfAbsent(fold(stack), k -> new int[1])[0]++;
+        sampled++;
+        if (now - lastReport >= REPORT_INTERVAL) {
+            lastReport = now;
+            report(false);
+        }
+    }
+
+    private void report(final boolean finished) {
+        final StringBuilder string = new StringBuilder(String.format(
+                "Task #%s for %s (%s) %s at least %sms on the main thread, %s samples every %sms:",
+                task.getTaskId(),
+                owner(task),
+                task.getTaskClass().getName(),
+                finished ? "ran for" : "has been running for",
+                TimeUnit.NANOSECONDS.toMillis(elapsed),
+                sampled,
+                interval));
+        final List<Map.Entry<String, int[]>> stacks = new ArrayList<>(samples.entrySet());
+        stacks.sort((a, b) -> Integer.compare(b.getValue()[0], a.getValue()[0]));
+        for (final Map.Entry<String, int[]> stack : stacks) {
+            string.append('\n').append(stack.getKey()).append(' ').append(stack.getValue()[0]);
+        }
+        PraesidiumEvolutionis.logger.warn(string.toString());
+        if (finished) {
+            samples.clear();
+            sampled = 0;
+        }
+    }
+
+    private static String owner(final ForgeTaskImpl task) {
+        return task.getOwner() != null ? task.getOwner().getModId() : "unknown";
+    }
+
+    /**
+     * Folds a stack root first. Frames below the innermost {@code ForgeSchedulerImpl.runRecorded} are dropped, so only
+     * the frames of the task being run are kept.
+     */
+    private static String fold(final StackTraceElement[] stack) {
+        int top = stack.length - 1;
+        for (int i = 0; i < stack.length; i++) {
+            if (stack[i].getClassName().equals(ForgeSchedulerImpl.class.getName())
+                    && stack[i].getMethodName().equals("runRecorded")) {
+                top = i - 1;
+                break;
+            }
+        }
+        final StringBuilder folded = new StringBuilder();
+        for (int i = top; i >= 0; i--) {
+            if (folded.length() > 0) {
+                folded.append(';');
+            }
+            folded.append(stack[i].getClassName()).append('.').append(stack[i].getMethodName());
+        }
+        return folded.toString();
+    }
+}
@@ -0,0 +1,52 @@
+package io.github.cruciblemc.praesidium_evolutionis.scheduler;
+
+import cpw.mods.fml.common.ModContainer;
+import cpw.mods.fml.relauncher.Side;
+import org.apiguardian.api.API;
+
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Async task timed by the wall clock instead of ticks, see
+ * {@link ForgeSchedulerImpl#runTaskTimerAsynchronously(ModContainer, Runnable, long, long, java.util.concurrent.TimeUnit)}.
+ * <p>
+ * The timer thread only hands the task to its mod's bulkhead when it is due, the task itself runs on the async pool
+ * like any other. A repeating task keeps its period in nanoseconds in the period field, and the {@link System#nanoTime()}
+ * its current run was due at in the next run field, the timer files it again by its repeat policy every time it fires.
+ */
+@API(status = API.Status.INTERNAL)
+class ForgeTimedTaskImpl extends ForgeAsyncTaskImpl {
+
+    private final Runnable fire;
+    private volatile ScheduledFuture<?> future;
+
+    ForgeTimedTaskImpl(final ForgeSchedulerImpl scheduler, final ModContainer owner, final Runnable task, final int id, final long period, final Side side) {
+        super(scheduler, owner, task, id, period, side);
+        this.fire = () -> scheduler.fire(this);
+    }
+
+    /**
+     * @return what the timer runs when the task is due, the same every time.
+     */
+    Runnable getFire() {
+        return fire;
+    }
+
+    void setFuture(final ScheduledFuture<?> future) {
+        this.future = future;
+        if (getPeriod() == -2L) {
+            // Cancelled before the timer handed us the future
+            future.cancel(false);
+        }
+    }
+
+    @Override
+    boolean cancel0() {
+        final boolean cancelled = super.cancel0();
+        final ScheduledFuture<?> future = this.future;
+        if (future != null) {
+            future.cancel(false);
+        }
+        return cancelled;
+    }
+}
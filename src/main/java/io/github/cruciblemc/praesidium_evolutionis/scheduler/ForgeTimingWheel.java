@@ -0,0 +1,295 @@
+package io.github.cruciblemc.praesidium_evolutionis.scheduler;
+
+import cpw.mods.fml.relauncher.Side;
+import io.github.cruciblemc.praesidium_evolutionis.api.scheduler.ForgeTaskPriority;
+import org.apiguardian.api.API;
+
+/**
+ * Hierarchical timing wheel keyed by tick, used as the pending structure of {@link ForgeSchedulerImpl}.
+ * <p>
+ * There are {@value #LEVELS} levels of {@value #WHEEL_SIZE} slots each, level {@code n} covering deadlines up to
+ * {@code 64^(n+1)} ticks away. Deadlines beyond the last level are kept in an overflow bucket that is re-filed once
+ * the last level wraps around. Every bucket is an intrusive circular list threaded through {@link ForgeTaskImpl},
+ * so scheduling, expiring and removing a task are O(1) and allocation free.
+ * <p>
+ * Expired tasks are moved into the ready list of their {@link ForgeTaskPriority priority} in deadline order, where
+ * they are picked up by {@link #poll()}, higher priorities first. The first level has a set of slots per priority,
+ * so expiring a slot stays a splice; tasks on the upper levels are sorted when they cascade down.
+ * A task is in a ready list exactly when its deadline is not after the tick the wheel is at, which is how the ready
+ * tasks are counted without walking the lists, so a task's next run must not change while it is filed.
+ * Not thread safe, the wheel is only ever touched by the thread running the heartbeat.
+ */
+@API(status = API.Status.INTERNAL)
+final class ForgeTimingWheel {
+
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 4;
+    private static final long OVERFLOW_MASK = (1L << (WHEEL_BITS * LEVELS)) - 1;
+    private static final int PRIORITIES = ForgeTaskPriority.values().length;
+
+    /**
+     * The first level per priority, then the upper levels
+     */
+    private final ForgeTaskImpl[] slots = new ForgeTaskImpl[(PRIORITIES + LEVELS - 1) * WHEEL_SIZE];
+    private final ForgeTaskImpl overflow = sentinel();
+    private final ForgeTaskImpl[] ready = new ForgeTaskImpl[PRIORITIES];
+    private long now;
+    private int size;
+    private int readyCount;
+
+    ForgeTimingWheel() {
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = sentinel();
+        }
+        for (int i = 0; i < ready.length; i++) {
+            ready[i] = sentinel();
+        }
+    }
+
+    /**
+     * Computes {@code tick + delay} clamping at {@link Long#MAX_VALUE} instead of overflowing.
+     */
+    static long deadline(long tick, long delay) {
+        return tick > 0 && delay > Long.MAX_VALUE - tick ? Long.MAX_VALUE : tick + delay;
+    }
+
+    static ForgeTaskImpl sentinel() {
+        ForgeTaskImpl sentinel = new ForgeTaskImpl((Side) null);
+        sentinel.setWheelNext(sentinel);
+        sentinel.setWheelPrev(sentinel);
+        return sentinel;
+    }
+
+    static void link(ForgeTaskImpl bucket, ForgeTaskImpl task) {
+        ForgeTaskImpl last = bucket.getWheelPrev();
+        task.setWheelPrev(last);
+        task.setWheelNext(bucket);
+        last.setWheelNext(task);
+        bucket.setWheelPrev(task);
+    }
+
+    static void unlink(ForgeTaskImpl task) {
+        ForgeTaskImpl prev = task.getWheelPrev();
+        ForgeTaskImpl next = task.getWheelNext();
+        prev.setWheelNext(next);
+        next.setWheelPrev(prev);
+        task.setWheelPrev(null);
+        task.setWheelNext(null);
+    }
+
+    /**
+     * @return the last tick the wheel advanced to.
+     */
+    long getNow() {
+        return now;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Files a task by its {@link ForgeTaskImpl#getNextRun() next run}. A task already due goes straight to the ready list.
+     */
+    void schedule(final ForgeTaskImpl task) {
+        if (task.getWheelNext() != null) {
+            unready(task);
+            unlink(task);
+        } else {
+            size++;
+        }
+        file(task);
+    }
+
+    /**
+     * Removes a task from wherever it currently sits in the wheel.
+     *
+     * @return true if the task was scheduled.
+     */
+    boolean remove(final ForgeTaskImpl task) {
+        if (task.getWheelNext() == null) {
+            return false;
+        }
+        unready(task);
+        unlink(task);
+        size--;
+        return true;
+    }
+
+    /**
+     * Moves the wheel forward, one tick at a time, expiring every task whose deadline was reached.
+     */
+    void advance(final long tick) {
+        if (size == 0) {
+            now = Math.max(now, tick);
+            return;
+        }
+        while (now < tick) {
+            final long current = ++now;
+            if ((current & WHEEL_MASK) == 0) {
+                cascade(current);
+            }
+            for (int priority = 0; priority < PRIORITIES; priority++) {
+                readyCount += drainInto(slots[priority * WHEEL_SIZE + (int) (current & WHEEL_MASK)], ready[priority]);
+            }
+        }
+    }
+
+    /**
+     * @return the next expired task of the highest priority, or null when nothing is ready.
+     */
+    ForgeTaskImpl poll() {
+        for (ForgeTaskImpl list : ready) {
+            final ForgeTaskImpl task = list.getWheelNext();
+            if (task != list) {
+                unlink(task);
+                size--;
+                readyCount--;
+                return task;
+            }
+        }
+        return null;
+    }
+
+    boolean hasReady() {
+        return readyCount > 0;
+    }
+
+    /**
+     * @return the number of tasks waiting in the ready lists.
+     */
+    int countReady() {
+        return readyCount;
+    }
+
+    /**
+     * Drops every task and moves the wheel to the given tick.
+     */
+    void reset(final long tick) {
+        for (ForgeTaskImpl slot : slots) {
+            clear(slot);
+        }
+        clear(overflow);
+        for (ForgeTaskImpl list : ready) {
+            clear(list);
+        }
+        size = 0;
+        readyCount = 0;
+        now = tick;
+    }
+
+    private void clear(ForgeTaskImpl bucket) {
+        ForgeTaskImpl task = bucket.getWheelNext();
+        while (task != bucket) {
+            ForgeTaskImpl next = task.getWheelNext();
+            task.setWheelPrev(null);
+            task.setWheelNext(null);
+            task = next;
+        }
+        bucket.setWheelNext(bucket);
+        bucket.setWheelPrev(bucket);
+    }
+
+    private void file(final ForgeTaskImpl task) {
+        link(bucketFor(task), task);
+        if (task.getNextRun() <= now) {
+            readyCount++;
+        }
+    }
+
+    private void unready(final ForgeTaskImpl task) {
+        if (task.getNextRun() <= now) {
+            readyCount--;
+        }
+    }
+
+    private ForgeTaskImpl bucketFor(final ForgeTaskImpl task) {
+        final long deadline = task.getNextRun();
+        final int priority = task.getPriority().ordinal();
+        if (deadline <= now) {
+            return ready[priority];
+        }
+        final long delta = deadline - now;
+        if (delta < WHEEL_SIZE) {
+            return slots[priority * WHEEL_SIZE + (int) (deadline & WHEEL_MASK)];
+        }
+        for (int level = 1; level < LEVELS; level++) {
+            final int shift = WHEEL_BITS * level;
+            if (delta < 1L << (shift + WHEEL_BITS)) {
+                return slots[upper(level) + (int) ((deadline >>> shift) & WHEEL_MASK)];
+            }
+        }
+        return overflow;
+    }
+
+    /**
+     * @return the index of the first slot of an upper level.
+     */
+    private static int upper(final int level) {
+        return (PRIORITIES + level - 1) * WHEEL_SIZE;
+    }
+
+    private void cascade(final long tick) {
+        // Find the highest level that wrapped on this tick, then re-file from the top down
+        int level = 1;
+        while (level < LEVELS && ((tick >>> (WHEEL_BITS * level)) & WHEEL_MASK) == 0) {
+            level++;
+        }
+        if (level == LEVELS && (tick & OVERFLOW_MASK) == 0) {
+            refile(overflow);
+        }
+        for (level = Math.min(level, LEVELS - 1); level > 0; level--) {
+            final int shift = WHEEL_BITS * level;
+            refile(slots[upper(level) + (int) ((tick >>> shift) & WHEEL_MASK)]);
+        }
+    }
+
+    private void refile(final ForgeTaskImpl bucket) {
+        if (bucket.getWheelNext() == bucket) {
+            return;
+        }
+        // Detach the bucket first, a task may be filed right back into it (overflow)
+        final ForgeTaskImpl last = bucket.getWheelPrev();
+        ForgeTaskImpl task = bucket.getWheelNext();
+        bucket.setWheelNext(bucket);
+        bucket.setWheelPrev(bucket);
+        while (true) {
+            final ForgeTaskImpl next = task.getWheelNext();
+            file(task);
+            if (task == last) {
+                break;
+            }
+            task = next;
+        }
+    }
+
+    /**
+     * @return the number of tasks moved, counted on the way so the ready count stays O(1) to read.
+     */
+    private static int drainInto(final ForgeTaskImpl bucket, final ForgeTaskImpl target) {
+        if (bucket.getWheelNext() == bucket) {
+            return 0;
+        }
+        int count = 0;
+        for (ForgeTaskImpl task = bucket.getWheelNext(); task != bucket; task = task.getWheelNext()) {
+            count++;
+        }
+        // Splice the whole bucket at the end of the target list
+        final ForgeTaskImpl first = bucket.getWheelNext();
+        final ForgeTaskImpl last = bucket.getWheelPrev();
+        final ForgeTaskImpl targetLast = target.getWheelPrev();
+        targetLast.setWheelNext(first);
+        first.setWheelPrev(targetLast);
+        last.setWheelNext(target);
+        target.setWheelPrev(last);
+        bucket.setWheelNext(bucket);
+        bucket.setWheelPrev(bucket);
+        return count;
+    }
+}
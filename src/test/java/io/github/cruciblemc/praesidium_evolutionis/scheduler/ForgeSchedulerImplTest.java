@@ -0,0 +1,70 @@
+package io.github.cruciblemc.praesidium_evolutionis.scheduler;
+
+import cpw.mods.fml.common.DummyModContainer;
+import cpw.mods.fml.common.ModContainer;
+import cpw.mods.fml.common.gameevent.TickEvent;
+import cpw.mods.fml.relauncher.Side;
+import io.github.cruciblemc.praesidium_evolutionis.api.scheduler.ForgeLane;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ForgeSchedulerImplTest {
+
+    private static final int WARMUP_TICKS = 100_000;
+    private static final int MEASURED_TICKS = 10_000;
+    /**
+     * The first measures may still see the JIT at work, an idle tick has to allocate nothing in one of them
+     */
+    private static final int ATTEMPTS = 5;
+
+    private final TickEvent.ServerTickEvent start = new TickEvent.ServerTickEvent(TickEvent.Phase.START);
+    private final TickEvent.ServerTickEvent end = new TickEvent.ServerTickEvent(TickEvent.Phase.END);
+
+    @Test
+    public void idleHeartbeatAllocatesNothing() {
+        assertEquals(0L, idleAllocation(new ForgeSchedulerImpl(Side.SERVER)));
+    }
+
+    @Test
+    public void idleHeartbeatAllocatesNothingOnceTasksAreDone() throws InterruptedException {
+        final ForgeSchedulerImpl scheduler = new ForgeSchedulerImpl(Side.SERVER);
+        final ModContainer mod = new DummyModContainer();
+        final CountDownLatch async = new CountDownLatch(1);
+        // Leaves a lane, a bulkhead and the tick stats behind
+        scheduler.runTask(mod, ForgeLane.TICK_END, () -> {
+        });
+        scheduler.runTaskAsynchronously(mod, async::countDown);
+        tick(scheduler);
+        assertTrue(async.await(10, TimeUnit.SECONDS));
+        assertEquals(0, scheduler.getAsyncStatsByMod().get(mod).getQueued());
+        assertEquals(0L, idleAllocation(scheduler));
+    }
+
+    private long idleAllocation(final ForgeSchedulerImpl scheduler) {
+        final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long thread = Thread.currentThread().getId();
+        for (int i = 0; i < WARMUP_TICKS; i++) {
+            tick(scheduler);
+        }
+        long allocated = Long.MAX_VALUE;
+        for (int attempt = 0; attempt < ATTEMPTS && allocated > 0; attempt++) {
+            final long before = threads.getThreadAllocatedBytes(thread);
+            for (int i = 0; i < MEASURED_TICKS; i++) {
+                tick(scheduler);
+            }
+            allocated = threads.getThreadAllocatedBytes(thread) - before;
+        }
+        return allocated;
+    }
+
+    private void tick(final ForgeSchedulerImpl scheduler) {
+        scheduler.onTick(start);
+        scheduler.onTick(end);
+    }
+}